@@ -25,8 +25,10 @@ import android.content.Intent;
 import android.os.AsyncTask;
 
 import com.aurora.adroid.database.AppDatabase;
+import com.aurora.adroid.download.MirrorSelector;
 import com.aurora.adroid.event.Event;
 import com.aurora.adroid.event.RxBus;
+import com.aurora.adroid.manager.LocaleManager;
 import com.aurora.adroid.model.App;
 import com.aurora.adroid.receiver.PackageManagerReceiver;
 import com.aurora.adroid.util.Log;
@@ -116,6 +118,12 @@ public class AuroraApplication extends Application {
         //Clear all old installation sessions.
         AsyncTask.execute(() -> Util.clearOldInstallationSessions(this));
 
+        //Rank repo mirrors before the first download is requested
+        AsyncTask.execute(() -> MirrorSelector.getInstance().refresh(this));
+
+        //Locale may have changed while the app was not running
+        new LocaleManager(this).refreshDisplayFields();
+
         //Check & start notification service
         Util.startNotificationService(this);
 
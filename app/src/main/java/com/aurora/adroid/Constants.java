@@ -31,7 +31,6 @@ public class Constants {
     public static final String DATABASE_DATE = "DATABASE_DATE";
 
     public static final String JAR = "jar";
-    public static final String JSON = ".json";
 
     public static final String FILE_FAVOURITES = "/favourite.json";
     public static final String FILE_BLACKLIST = "/blacklist.json";
@@ -72,12 +71,14 @@ public class Constants {
     public static final String PREFERENCE_PROXY_PORT = "PREFERENCE_PROXY_PORT";
     public static final String PREFERENCE_PROXY_TYPE = "PREFERENCE_PROXY_TYPE";
     public static final String PREFERENCE_REPO_UPDATE_INTERVAL = "PREFERENCE_REPO_UPDATE_INTERVAL";
+    public static final String PREFERENCE_REPO_SYNC_ACTIVE = "PREFERENCE_REPO_SYNC_ACTIVE";
     public static final String PREFERENCE_MIRROR_CHECKED = "PREFERENCE_MIRROR_CHECKED";
     public static final String PREFERENCE_LAUNCH_SERVICES = "PREFERENCE_LAUNCH_SERVICES";
     public static final String PREFERENCE_LOCALE_CUSTOM = "PREFERENCE_LOCALE_CUSTOM";
     public static final String PREFERENCE_LOCALE_LANG = "PREFERENCE_LOCALE_LANG";
     public static final String PREFERENCE_LOCALE_LIST = "PREFERENCE_LOCALE_LIST";
     public static final String PREFERENCE_LOCALE_COUNTRY = "PREFERENCE_LOCALE_COUNTRY";
+    public static final String PREFERENCE_LOCALE_RESOLVED = "PREFERENCE_LOCALE_RESOLVED";
 
     public static final String FRAGMENT_NAME = "FRAGMENT_NAME";
     public static final String FRAGMENT_ABOUT = "FRAGMENT_ABOUT";
@@ -98,6 +99,8 @@ public class Constants {
     public static final String DOWNLOAD_VERSION_CODE = "DOWNLOAD_VERSION_CODE";
     public static final String DOWNLOAD_ICON_URL = "DOWNLOAD_ICON_URL";
     public static final String DOWNLOAD_APK_NAME = "DOWNLOAD_APK_NAME";
+    public static final String DOWNLOAD_HASH = "DOWNLOAD_HASH";
+    public static final String DOWNLOAD_HASH_TYPE = "DOWNLOAD_HASH_TYPE";
 
     public static final String DOWNLOAD_REPO_ID = "DOWNLOAD_REPO_ID";
     public static final String DOWNLOAD_REPO_NAME = "DOWNLOAD_REPO_NAME";
@@ -20,6 +20,7 @@
 package com.aurora.adroid.database;
 
 import androidx.lifecycle.LiveData;
+import androidx.paging.DataSource;
 import androidx.room.Dao;
 import androidx.room.Delete;
 import androidx.room.Insert;
@@ -30,14 +31,14 @@ import androidx.room.Update;
 import androidx.sqlite.db.SupportSQLiteQuery;
 
 import com.aurora.adroid.model.App;
+import com.aurora.adroid.model.AppStamp;
+import com.aurora.adroid.model.Package;
+import com.aurora.adroid.model.v2.AppSearch;
 
 import java.util.List;
 
 @Dao
 public interface AppDao {
-    @Query("SELECT * FROM app")
-    LiveData<List<App>> getAllApps();
-
     @Query("SELECT packageName FROM app")
     List<String> getAllPackages();
 
@@ -47,6 +48,9 @@ public interface AppDao {
     @Query("SELECT * FROM app WHERE packageName =:packageName")
     List<App> getAppsByPackageName(String packageName);
 
+    @Query("SELECT * FROM app WHERE packageName IN (:packageNames)")
+    List<App> getAppsByPackageNames(List<String> packageNames);
+
     @Query("SELECT * FROM app WHERE packageName = :packageName")
     LiveData<App> getLiveAppByPackageName(String packageName);
 
@@ -62,30 +66,45 @@ public interface AppDao {
     @Query("SELECT * FROM app WHERE name LIKE :pattern LIMIT 20")
     LiveData<List<App>> findAppsByName(String pattern);
 
-    @Query("SELECT * FROM app WHERE (authorName = :authorName) or (authorName LIKE :authorName) LIMIT 20")
+    @Query("SELECT * FROM app WHERE authorName = :authorName LIMIT 20")
     LiveData<List<App>> getAppsByAuthorName(String authorName);
 
-    @Query("SELECT * FROM app WHERE (:refTime - lastUpdated <= :diff) and (lastUpdated - added > :buffer) ORDER BY lastUpdated DESC")
-    LiveData<List<App>> getLatestUpdatedApps(Long refTime, Long diff, Long buffer);
-
-    @Query("SELECT * FROM app WHERE :refTime - added <= :diff ORDER BY added DESC")
-    LiveData<List<App>> getLatestAddedApps(Long refTime, Long diff);
+    @Query("SELECT * FROM app WHERE lastUpdated >= :since and (lastUpdated - added > :buffer) ORDER BY lastUpdated DESC")
+    LiveData<List<App>> getLatestUpdatedApps(Long since, Long buffer);
 
-    @Query("SELECT * FROM app WHERE (name LIKE :query) OR (summary LIKE :query) LIMIT 30")
-    LiveData<List<App>> searchApps(String query);
+    @Query("SELECT * FROM app WHERE added >= :since ORDER BY added DESC")
+    LiveData<List<App>> getLatestAddedApps(Long since);
 
-    @RawQuery()
-    List<App> searchApps(SupportSQLiteQuery query);
+    @RawQuery(observedEntities = {App.class, AppSearch.class})
+    DataSource.Factory<Integer, App> getPagedApps(SupportSQLiteQuery query);
 
-    @Query("SELECT * FROM app WHERE categories LIKE :category")
+    @Query("SELECT app.* FROM app JOIN app_category ON app.repoId = app_category.repoId AND app.packageName = app_category.packageName " +
+            "WHERE app_category.category = :category")
     LiveData<List<App>> searchAppsByCategory(String category);
 
-    @Query("SELECT * FROM app WHERE repoId LIKE :repoId")
-    LiveData<List<App>> searchAppsByRepository(String repoId);
+    @Query("SELECT * FROM app WHERE (repoId > :repoId) OR (repoId = :repoId AND packageName > :packageName) " +
+            "ORDER BY repoId, packageName LIMIT :limit")
+    List<App> getAppsAfter(String repoId, String packageName, int limit);
+
+    @Query("UPDATE app SET displayName = :displayName, displaySummary = :displaySummary, displayIcon = :displayIcon " +
+            "WHERE repoId = :repoId AND packageName = :packageName")
+    void updateDisplayFields(String repoId, String packageName, String displayName, String displaySummary, String displayIcon);
+
+    @Query("UPDATE app SET pkg = :pkg, compatibleVersionCode = :compatibleVersionCode " +
+            "WHERE repoId = :repoId AND packageName = :packageName")
+    void updateCompatiblePackage(String repoId, String packageName, Package pkg, long compatibleVersionCode);
+
+    @Query("SELECT app.packageName, app.lastUpdated, app_package.fingerprint AS packageFingerprint FROM app "
+            + "LEFT JOIN app_package ON app_package.repoId = app.repoId AND app_package.packageName = app.packageName "
+            + "WHERE app.repoId =:repoId")
+    List<AppStamp> getAppStamps(String repoId);
 
     @Query("DELETE FROM app WHERE repoId =:repoID")
     void clearRepo(String repoID);
 
+    @Query("DELETE FROM app WHERE repoId =:repoId AND packageName IN (:packageNames)")
+    void delete(String repoId, List<String> packageNames);
+
 
     @Query("SELECT EXISTS(SELECT * FROM app WHERE packageName =:packageName)")
     boolean isAvailable(String packageName);
@@ -101,4 +120,7 @@ public interface AppDao {
 
     @Update
     void update(App app);
+
+    @Update
+    void updateAll(List<App> appList);
 }
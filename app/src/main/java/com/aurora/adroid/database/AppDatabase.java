@@ -28,12 +28,18 @@ import androidx.room.RoomDatabase;
 import androidx.room.TypeConverters;
 import androidx.sqlite.db.SupportSQLiteDatabase;
 
+import com.aurora.adroid.manager.RepoSyncManager;
 import com.aurora.adroid.model.App;
+import com.aurora.adroid.model.v2.AppCategory;
+import com.aurora.adroid.model.v2.AppDetail;
 import com.aurora.adroid.model.v2.AppPackage;
+import com.aurora.adroid.model.v2.AppPending;
+import com.aurora.adroid.model.v2.AppSearch;
 import com.aurora.adroid.model.v2.Repo;
+import com.aurora.adroid.util.DatabaseUtil;
 import com.aurora.adroid.util.Log;
 
-@Database(entities = {App.class, AppPackage.class, Repo.class}, version = 3, exportSchema = false)
+@Database(entities = {App.class, AppCategory.class, AppDetail.class, AppPackage.class, AppPending.class, AppSearch.class, Repo.class}, version = 11, exportSchema = false)
 @TypeConverters(DatabaseConverter.class)
 public abstract class AppDatabase extends RoomDatabase {
 
@@ -45,6 +51,9 @@ public abstract class AppDatabase extends RoomDatabase {
             synchronized (AppDatabase.class) {
                 if (instance == null) {
                     instance = Room.databaseBuilder(context.getApplicationContext(), AppDatabase.class, AppDatabase.DATABASE_NAME)
+                            .addMigrations(DatabaseMigration.MIGRATION_3_4, DatabaseMigration.MIGRATION_4_5, DatabaseMigration.MIGRATION_5_6,
+                                    DatabaseMigration.MIGRATION_6_7, DatabaseMigration.MIGRATION_7_8, DatabaseMigration.MIGRATION_8_9,
+                                    DatabaseMigration.MIGRATION_9_10, DatabaseMigration.MIGRATION_10_11)
                             .fallbackToDestructiveMigration()
                             .addCallback(new Callback() {
                                 @Override
@@ -56,6 +65,9 @@ public abstract class AppDatabase extends RoomDatabase {
                                 @Override
                                 public void onDestructiveMigration(@NonNull SupportSQLiteDatabase db) {
                                     super.onDestructiveMigration(db);
+                                    //Repos need a fresh sync, cached indexes are restored without a download
+                                    RepoSyncManager.getInstance(context).clearSyncMap();
+                                    DatabaseUtil.setDatabaseAvailable(context.getApplicationContext(), false);
                                     Log.i("DB migrated to new version, old purged");
                                 }
                             })
@@ -80,7 +92,15 @@ public abstract class AppDatabase extends RoomDatabase {
 
     public abstract AppDao appDao();
 
+    public abstract AppCategoryDao appCategoryDao();
+
+    public abstract AppDetailDao appDetailDao();
+
     public abstract AppPackageDao appPackageDao();
 
+    public abstract AppPendingDao appPendingDao();
+
+    public abstract AppSearchDao appSearchDao();
+
     public abstract RepoDao repoDao();
 }
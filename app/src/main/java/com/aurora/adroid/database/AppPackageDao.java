@@ -40,6 +40,9 @@ public interface AppPackageDao {
     @Query("SELECT * FROM APP_PACKAGE WHERE packageName = :packageName")
     LiveData<List<AppPackage>> getLivePackageList(String packageName);
 
+    @Query("SELECT * FROM APP_PACKAGE WHERE packageName IN (:packageNames)")
+    List<AppPackage> getAppPackages(List<String> packageNames);
+
     @Query("SELECT * FROM APP_PACKAGE WHERE packageName = :packageName and repoId =:repoId")
     AppPackage getAppPackageList(String packageName, String repoId);
 
@@ -49,6 +52,9 @@ public interface AppPackageDao {
     @Query("DELETE FROM APP_PACKAGE WHERE repoId =:repoId")
     void clear(String repoId);
 
+    @Query("DELETE FROM APP_PACKAGE WHERE repoId =:repoId AND packageName IN (:packageNames)")
+    void delete(String repoId, List<String> packageNames);
+
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     void insertAll(List<AppPackage> packageList);
 
@@ -0,0 +1,136 @@
+/*
+ * Aurora Droid
+ * Copyright (C) 2019-20, Rahul Kumar Patel <whyorean@gmail.com>
+ *
+ * Aurora Droid is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Aurora Droid is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Aurora Droid.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.aurora.adroid.database;
+
+import androidx.sqlite.db.SimpleSQLiteQuery;
+import androidx.sqlite.db.SupportSQLiteQuery;
+
+import com.aurora.adroid.Sort;
+import com.aurora.adroid.util.TextUtil;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import lombok.Data;
+
+@Data
+public class AppQuery {
+
+    private String join;
+    private String selection;
+    private Object[] selectionArgs = new Object[0];
+    private String filter = StringUtils.EMPTY;
+    private Sort sort;
+
+    public AppQuery(String selection, Object... selectionArgs) {
+        this.selection = selection;
+        this.selectionArgs = selectionArgs;
+    }
+
+    public static AppQuery all() {
+        return new AppQuery(null);
+    }
+
+    public static AppQuery newApps(long refTime, int days) {
+        final AppQuery query = new AppQuery("app.added >= ?", refTime - TimeUnit.DAYS.toMillis(days));
+        query.setSort(Sort.DATE_ADDED);
+        return query;
+    }
+
+    public static AppQuery updatedApps(long refTime, int days) {
+        final AppQuery query = new AppQuery("app.lastUpdated >= ? AND (app.lastUpdated - app.added > ?)",
+                refTime - TimeUnit.DAYS.toMillis(days), TimeUnit.DAYS.toMillis(7));
+        query.setSort(Sort.DATE_UPDATED);
+        return query;
+    }
+
+    public static AppQuery category(String category) {
+        final AppQuery query = new AppQuery("app_category.category = ?", category);
+        query.setJoin("JOIN app_category ON app.repoId = app_category.repoId AND app.packageName = app_category.packageName");
+        return query;
+    }
+
+    public static AppQuery repository(String repoId) {
+        return new AppQuery("app.repoId = ?", repoId);
+    }
+
+    public AppQuery copy() {
+        final AppQuery query = new AppQuery(selection, selectionArgs);
+        query.setJoin(join);
+        query.setFilter(filter);
+        query.setSort(sort);
+        return query;
+    }
+
+    public SupportSQLiteQuery toSQLiteQuery() {
+        final String match = TextUtil.toFtsQuery(filter);
+        final List<Object> args = new ArrayList<>(Arrays.asList(selectionArgs));
+        final StringBuilder builder = new StringBuilder("SELECT app.* FROM app");
+
+        if (join != null)
+            builder.append(" ").append(join);
+
+        if (!match.isEmpty())
+            builder.append(" JOIN app_fts ON app.repoId = app_fts.repoId AND app.packageName = app_fts.packageName");
+
+        builder.append(" WHERE 1");
+
+        if (selection != null)
+            builder.append(" AND (").append(selection).append(")");
+
+        if (!match.isEmpty()) {
+            builder.append(" AND app_fts MATCH ?");
+            args.add(match);
+        }
+
+        builder.append(" ORDER BY ");
+
+        //Without an explicit sort, hits on the name rank above hits on summary or description
+        if (sort == null && !match.isEmpty()) {
+            final String term = filter.trim();
+            builder.append("CASE WHEN app_fts.name LIKE ? THEN 0 WHEN app_fts.name LIKE ? THEN 1 ELSE 2 END, ");
+            args.add(term + "%");
+            args.add("%" + term + "%");
+        }
+
+        builder.append(getOrderBy(sort));
+        return new SimpleSQLiteQuery(builder.toString(), args.toArray());
+    }
+
+    private static String getOrderBy(Sort sort) {
+        if (sort == null)
+            return "app.lastUpdated DESC";
+        switch (sort) {
+            case NAME_AZ:
+                return "app.displayName COLLATE NOCASE ASC";
+            case NAME_ZA:
+                return "app.displayName COLLATE NOCASE DESC";
+            case DATE_ADDED:
+                return "app.added DESC";
+            default:
+                //Size lives inside the serialized pkg column, its chips stay hidden
+                return "app.lastUpdated DESC";
+        }
+    }
+}
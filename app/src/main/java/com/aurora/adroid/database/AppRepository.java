@@ -22,8 +22,10 @@ package com.aurora.adroid.database;
 import android.app.Application;
 
 import androidx.lifecycle.LiveData;
+import androidx.paging.DataSource;
 
 import com.aurora.adroid.model.App;
+import com.aurora.adroid.model.v2.AppDetail;
 
 import java.util.List;
 import java.util.concurrent.TimeUnit;
@@ -31,27 +33,28 @@ import java.util.concurrent.TimeUnit;
 public class AppRepository {
 
     private AppDao appDao;
+    private AppDetailDao appDetailDao;
 
     public AppRepository(Application application) {
         AppDatabase appDatabase = AppDatabase.getDatabase(application);
         appDao = appDatabase.appDao();
+        appDetailDao = appDatabase.appDetailDao();
     }
 
-    public LiveData<List<App>> getAllApps() {
-        return appDao.getAllApps();
+    public DataSource.Factory<Integer, App> getPagedApps(AppQuery query) {
+        return appDao.getPagedApps(query.toSQLiteQuery());
     }
 
     public LiveData<List<App>> getAllUpdatedApps(Long refTime, int days) {
-        return appDao.getLatestUpdatedApps(refTime, TimeUnit.DAYS.toMillis(days), TimeUnit.DAYS.toMillis(7));
+        return appDao.getLatestUpdatedApps(refTime - TimeUnit.DAYS.toMillis(days), TimeUnit.DAYS.toMillis(7));
     }
 
     public LiveData<List<App>> getAllNewApps(Long refTime, int days) {
-        return appDao.getLatestAddedApps(refTime, TimeUnit.DAYS.toMillis(days));
+        return appDao.getLatestAddedApps(refTime - TimeUnit.DAYS.toMillis(days));
     }
 
     public LiveData<List<App>> getAllAppsByCategory(String category) {
-        category = category.replace("&", "%");
-        return appDao.searchAppsByCategory("%" + category + "%");
+        return appDao.searchAppsByCategory(category);
     }
 
     public LiveData<App> getLiveAppByPackageName(String packageName) {
@@ -66,12 +69,16 @@ public class AppRepository {
         return appDao.getAppsByPackageName(packageName);
     }
 
+    public List<App> getAppsByPackageNames(List<String> packageNames) {
+        return appDao.getAppsByPackageNames(packageNames);
+    }
+
     public App getAppByPackageNameAndRepo(String packageName, String repoName) {
         return appDao.getAppByPackageNameAndRepo(packageName, repoName);
     }
 
-    public LiveData<List<App>> getAllAppsByRepositoryId(String repoId) {
-        return appDao.searchAppsByRepository("%" + repoId + "%");
+    public AppDetail getAppDetail(String packageName, String repoId) {
+        return appDetailDao.getAppDetail(packageName, repoId);
     }
 
     public LiveData<List<App>> getAllAppsByDeveloper(String authorName) {
@@ -0,0 +1,44 @@
+/*
+ * Aurora Droid
+ * Copyright (C) 2019-20, Rahul Kumar Patel <whyorean@gmail.com>
+ *
+ * Aurora Droid is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Aurora Droid is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Aurora Droid.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.aurora.adroid.database;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+
+import com.aurora.adroid.model.v2.AppSearch;
+
+import java.util.List;
+
+@Dao
+public interface AppSearchDao {
+
+    @Query("DELETE FROM app_fts WHERE rowid IN (:rowIds)")
+    void delete(List<Long> rowIds);
+
+    @Query("UPDATE app_fts SET name = :name, summary = :summary, description = :description WHERE rowid = :rowId")
+    void updateDisplayFields(long rowId, String name, String summary, String description);
+
+    @Query("DELETE FROM app_fts WHERE repoId =:repoId")
+    void clear(String repoId);
+
+    @Insert
+    void insertAll(List<AppSearch> appSearchList);
+}
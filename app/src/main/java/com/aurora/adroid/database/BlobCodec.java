@@ -0,0 +1,405 @@
+/*
+ * Aurora Droid
+ * Copyright (C) 2019-20, Rahul Kumar Patel <whyorean@gmail.com>
+ *
+ * Aurora Droid is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Aurora Droid is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Aurora Droid.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.aurora.adroid.database;
+
+import com.aurora.adroid.model.Package;
+import com.aurora.adroid.model.v2.AppPackage;
+import com.aurora.adroid.model.v2.Localization;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//Compact binary form of converted columns: varint lengths, UTF-8 strings and a per-value string table
+//so repeated strings (permissions, ABIs, screenshot names) are stored and materialized once
+public class BlobCodec {
+
+    private static final int FORMAT_VERSION = 2;
+    private static final int INITIAL_CAPACITY = 4096;
+    private static final int MAX_RETAINED_CAPACITY = 256 * 1024;
+
+    private static final int NULL = 0;
+    private static final int LITERAL = 1;
+
+    private static final ThreadLocal<BlobCodec> CODEC = new ThreadLocal<BlobCodec>() {
+        @Override
+        protected BlobCodec initialValue() {
+            return new BlobCodec();
+        }
+    };
+
+    private final Map<String, Integer> writeTable = new HashMap<>();
+    private final List<String> readTable = new ArrayList<>();
+
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+    private byte[] input;
+    private int position;
+    private int version;
+    private int writeVersion;
+
+    private BlobCodec() {
+    }
+
+    public static BlobCodec writer() {
+        return writer(FORMAT_VERSION);
+    }
+
+    //Older versions are only written by tests, to check blobs already on disk still decode
+    static BlobCodec writer(int formatVersion) {
+        final BlobCodec codec = CODEC.get();
+        if (codec.buffer.length > MAX_RETAINED_CAPACITY)
+            codec.buffer = new byte[INITIAL_CAPACITY];
+        codec.writeTable.clear();
+        codec.position = 0;
+        codec.writeVersion = formatVersion;
+        codec.writeVarInt(formatVersion);
+        return codec;
+    }
+
+    public static BlobCodec reader(byte[] bytes) {
+        final BlobCodec codec = CODEC.get();
+        codec.readTable.clear();
+        codec.input = bytes;
+        codec.position = 0;
+        codec.version = codec.readVarInt();
+        if (codec.version < 1 || codec.version > FORMAT_VERSION)
+            throw new IllegalStateException("Unknown blob format " + codec.version);
+        return codec;
+    }
+
+    public byte[] toByteArray() {
+        final byte[] bytes = Arrays.copyOf(buffer, position);
+        writeTable.clear();
+        return bytes;
+    }
+
+    public void release() {
+        input = null;
+        readTable.clear();
+    }
+
+    /*
+     * Writers
+     */
+
+    public void writeString(String value) {
+        if (value == null) {
+            writeVarInt(NULL);
+            return;
+        }
+
+        final Integer index = writeTable.get(value);
+        if (index != null) {
+            writeVarInt(index + 2);
+            return;
+        }
+
+        writeTable.put(value, writeTable.size());
+        writeVarInt(LITERAL);
+
+        //Most strings are ASCII, those skip the intermediate byte[] of getBytes()
+        final int length = value.length();
+        boolean ascii = true;
+        for (int i = 0; i < length && ascii; i++)
+            ascii = value.charAt(i) < 0x80;
+
+        if (ascii) {
+            writeVarInt(length);
+            ensureCapacity(length);
+            for (int i = 0; i < length; i++)
+                buffer[position++] = (byte) value.charAt(i);
+        } else {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+    }
+
+    public void writeLong(Long value) {
+        if (value == null) {
+            writeVarInt(NULL);
+        } else {
+            writeVarInt(LITERAL);
+            writeVarLong(value);
+        }
+    }
+
+    public void writeStringList(List<String> list) {
+        if (list == null) {
+            writeVarInt(NULL);
+            return;
+        }
+        writeVarInt(list.size() + 1);
+        for (String value : list)
+            writeString(value);
+    }
+
+    public void writeNestedStringList(List<List<String>> list) {
+        if (list == null) {
+            writeVarInt(NULL);
+            return;
+        }
+        writeVarInt(list.size() + 1);
+        for (List<String> value : list)
+            writeStringList(value);
+    }
+
+    public void writePackage(Package pkg) {
+        if (pkg == null) {
+            writeVarInt(NULL);
+            return;
+        }
+        writeVarInt(LITERAL);
+        writeString(pkg.getApkName());
+        writeLong(pkg.getAdded());
+        writeString(pkg.getHash());
+        writeString(pkg.getHashType());
+        writeString(pkg.getMinSdkVersion());
+        writeStringList(pkg.getNativecode());
+        writeString(pkg.getPackageName());
+        writeString(pkg.getSig());
+        writeString(pkg.getSigner());
+        writeLong(pkg.getSize());
+        writeString(pkg.getSrcname());
+        writeString(pkg.getTargetSdkVersion());
+        writeNestedStringList(pkg.getUsesPermission());
+        writeLong(pkg.getVersionCode());
+        writeString(pkg.getVersionName());
+        writeStringList(pkg.getAntiFeatures());
+        if (writeVersion >= 2) {
+            writeString(pkg.getMaxSdkVersion());
+            writeVarInt(pkg.isCompatible() ? 1 : 0);
+        }
+    }
+
+    public void writePackageList(List<Package> packageList) {
+        if (packageList == null) {
+            writeVarInt(NULL);
+            return;
+        }
+        writeVarInt(packageList.size() + 1);
+        for (Package pkg : packageList)
+            writePackage(pkg);
+    }
+
+    public void writeAppPackage(AppPackage appPackage) {
+        if (appPackage == null) {
+            writeVarInt(NULL);
+            return;
+        }
+        writeVarInt(LITERAL);
+        writeString(appPackage.getRepoId());
+        writeString(appPackage.getPackageName());
+        writePackageList(appPackage.getPackageList());
+    }
+
+    public void writeLocalization(Localization localization) {
+        if (localization == null) {
+            writeVarInt(NULL);
+            return;
+        }
+        writeVarInt(LITERAL);
+        writeString(localization.getFeatureGraphic());
+        writeString(localization.getIcon());
+        writeStringList(localization.getPhoneScreenshots());
+        writeStringList(localization.getSevenInchScreenshots());
+        writeStringList(localization.getTenInchScreenshots());
+        writeStringList(localization.getTvScreenshots());
+        writeStringList(localization.getWearScreenshots());
+        writeString(localization.getSummary());
+        writeString(localization.getChangelog());
+        writeString(localization.getDescription());
+        writeString(localization.getName());
+    }
+
+    public void writeLocalizationMap(Map<String, Localization> localizationMap) {
+        if (localizationMap == null) {
+            writeVarInt(NULL);
+            return;
+        }
+        writeVarInt(localizationMap.size() + 1);
+        for (Map.Entry<String, Localization> entry : localizationMap.entrySet()) {
+            writeString(entry.getKey());
+            writeLocalization(entry.getValue());
+        }
+    }
+
+    /*
+     * Readers
+     */
+
+    public String readString() {
+        final int tag = readVarInt();
+        if (tag == NULL)
+            return null;
+        if (tag != LITERAL)
+            return readTable.get(tag - 2);
+
+        final int length = readVarInt();
+        final String value = new String(input, position, length, StandardCharsets.UTF_8);
+        position += length;
+        readTable.add(value);
+        return value;
+    }
+
+    public Long readLong() {
+        return readVarInt() == NULL ? null : readVarLong();
+    }
+
+    public List<String> readStringList() {
+        final int size = readVarInt() - 1;
+        if (size < 0)
+            return null;
+        final List<String> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            list.add(readString());
+        return list;
+    }
+
+    public List<List<String>> readNestedStringList() {
+        final int size = readVarInt() - 1;
+        if (size < 0)
+            return null;
+        final List<List<String>> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            list.add(readStringList());
+        return list;
+    }
+
+    public Package readPackage() {
+        if (readVarInt() == NULL)
+            return null;
+        final Package pkg = new Package();
+        pkg.setApkName(readString());
+        pkg.setAdded(readLong());
+        pkg.setHash(readString());
+        pkg.setHashType(readString());
+        pkg.setMinSdkVersion(readString());
+        pkg.setNativecode(readStringList());
+        pkg.setPackageName(readString());
+        pkg.setSig(readString());
+        pkg.setSigner(readString());
+        pkg.setSize(readLong());
+        pkg.setSrcname(readString());
+        pkg.setTargetSdkVersion(readString());
+        pkg.setUsesPermission(readNestedStringList());
+        pkg.setVersionCode(readLong());
+        pkg.setVersionName(readString());
+        pkg.setAntiFeatures(readStringList());
+        if (version >= 2) {
+            pkg.setMaxSdkVersion(readString());
+            pkg.setCompatible(readVarInt() == 1);
+        }
+        return pkg;
+    }
+
+    public List<Package> readPackageList() {
+        final int size = readVarInt() - 1;
+        if (size < 0)
+            return null;
+        final List<Package> packageList = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            packageList.add(readPackage());
+        return packageList;
+    }
+
+    public AppPackage readAppPackage() {
+        if (readVarInt() == NULL)
+            return null;
+        final AppPackage appPackage = new AppPackage();
+        appPackage.setRepoId(readString());
+        appPackage.setPackageName(readString());
+        appPackage.setPackageList(readPackageList());
+        return appPackage;
+    }
+
+    public Localization readLocalization() {
+        if (readVarInt() == NULL)
+            return null;
+        final Localization localization = new Localization();
+        localization.setFeatureGraphic(readString());
+        localization.setIcon(readString());
+        localization.setPhoneScreenshots(readStringList());
+        localization.setSevenInchScreenshots(readStringList());
+        localization.setTenInchScreenshots(readStringList());
+        localization.setTvScreenshots(readStringList());
+        localization.setWearScreenshots(readStringList());
+        localization.setSummary(readString());
+        localization.setChangelog(readString());
+        localization.setDescription(readString());
+        localization.setName(readString());
+        return localization;
+    }
+
+    public HashMap<String, Localization> readLocalizationMap() {
+        final int size = readVarInt() - 1;
+        if (size < 0)
+            return null;
+        final HashMap<String, Localization> localizationMap = new HashMap<>(size * 4 / 3 + 1);
+        for (int i = 0; i < size; i++) {
+            final String key = readString();
+            localizationMap.put(key, readLocalization());
+        }
+        return localizationMap;
+    }
+
+    /*
+     * Primitives
+     */
+
+    private void writeVarInt(int value) {
+        writeVarLong(value & 0xFFFFFFFFL);
+    }
+
+    private void writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    private int readVarInt() {
+        return (int) readVarLong();
+    }
+
+    private long readVarLong() {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = input[position++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (position + extra > buffer.length)
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+    }
+}
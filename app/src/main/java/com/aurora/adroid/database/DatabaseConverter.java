@@ -24,8 +24,6 @@ import androidx.room.TypeConverter;
 import com.aurora.adroid.model.Package;
 import com.aurora.adroid.model.v2.AppPackage;
 import com.aurora.adroid.model.v2.Localization;
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
 
 import java.util.HashMap;
 import java.util.List;
@@ -33,66 +31,116 @@ import java.util.List;
 public class DatabaseConverter {
 
     @TypeConverter
-    public static List<String> restoreList(String listOfString) {
-        return new Gson().fromJson(listOfString, new TypeToken<List<String>>() {
-        }.getType());
+    public static List<String> restoreList(byte[] bytes) {
+        if (bytes == null)
+            return null;
+        final BlobCodec codec = BlobCodec.reader(bytes);
+        final List<String> list = codec.readStringList();
+        codec.release();
+        return list;
     }
 
     @TypeConverter
-    public static List<List<String>> restoreNestedList(String listOfString) {
-        return new Gson().fromJson(listOfString, new TypeToken<List<List<String>>>() {
-        }.getType());
+    public static List<List<String>> restoreNestedList(byte[] bytes) {
+        if (bytes == null)
+            return null;
+        final BlobCodec codec = BlobCodec.reader(bytes);
+        final List<List<String>> list = codec.readNestedStringList();
+        codec.release();
+        return list;
     }
 
     @TypeConverter
-    public static String saveList(List<String> listOfString) {
-        return new Gson().toJson(listOfString);
+    public static byte[] saveList(List<String> listOfString) {
+        if (listOfString == null)
+            return null;
+        final BlobCodec codec = BlobCodec.writer();
+        codec.writeStringList(listOfString);
+        return codec.toByteArray();
     }
 
     @TypeConverter
-    public static String saveNestedList(List<List<String>> listOfString) {
-        return new Gson().toJson(listOfString);
+    public static byte[] saveNestedList(List<List<String>> listOfString) {
+        if (listOfString == null)
+            return null;
+        final BlobCodec codec = BlobCodec.writer();
+        codec.writeNestedStringList(listOfString);
+        return codec.toByteArray();
     }
 
     @TypeConverter
-    public static List<Package> stringToPackageList(String listOfString) {
-        return new Gson().fromJson(listOfString, new TypeToken<List<Package>>() {
-        }.getType());
+    public static List<Package> bytesToPackageList(byte[] bytes) {
+        if (bytes == null)
+            return null;
+        final BlobCodec codec = BlobCodec.reader(bytes);
+        final List<Package> packageList = codec.readPackageList();
+        codec.release();
+        return packageList;
     }
 
     @TypeConverter
-    public static String packageListToString(List<Package> packageList) {
-        return new Gson().toJson(packageList);
+    public static byte[] packageListToBytes(List<Package> packageList) {
+        if (packageList == null)
+            return null;
+        final BlobCodec codec = BlobCodec.writer();
+        codec.writePackageList(packageList);
+        return codec.toByteArray();
     }
 
     @TypeConverter
-    public static Package stringToPackage(String listOfString) {
-        return new Gson().fromJson(listOfString, Package.class);
+    public static Package bytesToPackage(byte[] bytes) {
+        if (bytes == null)
+            return null;
+        final BlobCodec codec = BlobCodec.reader(bytes);
+        final Package pkg = codec.readPackage();
+        codec.release();
+        return pkg;
     }
 
     @TypeConverter
-    public static String packageToString(Package appPackage) {
-        return new Gson().toJson(appPackage);
+    public static byte[] packageToBytes(Package appPackage) {
+        if (appPackage == null)
+            return null;
+        final BlobCodec codec = BlobCodec.writer();
+        codec.writePackage(appPackage);
+        return codec.toByteArray();
     }
 
     @TypeConverter
-    public static AppPackage stringToAppPackage(String listOfString) {
-        return new Gson().fromJson(listOfString, AppPackage.class);
+    public static AppPackage bytesToAppPackage(byte[] bytes) {
+        if (bytes == null)
+            return null;
+        final BlobCodec codec = BlobCodec.reader(bytes);
+        final AppPackage appPackage = codec.readAppPackage();
+        codec.release();
+        return appPackage;
     }
 
     @TypeConverter
-    public static String appPackageToString(AppPackage appPackage) {
-        return new Gson().toJson(appPackage);
+    public static byte[] appPackageToBytes(AppPackage appPackage) {
+        if (appPackage == null)
+            return null;
+        final BlobCodec codec = BlobCodec.writer();
+        codec.writeAppPackage(appPackage);
+        return codec.toByteArray();
     }
 
     @TypeConverter
-    public static HashMap<String, Localization> stringToLocalizationHashMap(String listOfString) {
-        return new Gson().fromJson(listOfString, new TypeToken<HashMap<String, Localization>>() {
-        }.getType());
+    public static HashMap<String, Localization> bytesToLocalizationHashMap(byte[] bytes) {
+        if (bytes == null)
+            return null;
+        final BlobCodec codec = BlobCodec.reader(bytes);
+        final HashMap<String, Localization> localizationMap = codec.readLocalizationMap();
+        codec.release();
+        return localizationMap;
     }
 
     @TypeConverter
-    public static String localizationMapToString(HashMap<String, Localization> localizationHashMap) {
-        return new Gson().toJson(localizationHashMap);
+    public static byte[] localizationMapToBytes(HashMap<String, Localization> localizationHashMap) {
+        if (localizationHashMap == null)
+            return null;
+        final BlobCodec codec = BlobCodec.writer();
+        codec.writeLocalizationMap(localizationHashMap);
+        return codec.toByteArray();
     }
 }
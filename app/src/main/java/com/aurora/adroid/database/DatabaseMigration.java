@@ -0,0 +1,324 @@
+/*
+ * Aurora Droid
+ * Copyright (C) 2019-20, Rahul Kumar Patel <whyorean@gmail.com>
+ *
+ * Aurora Droid is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Aurora Droid is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Aurora Droid.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.aurora.adroid.database;
+
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteStatement;
+
+import com.aurora.adroid.model.App;
+import com.aurora.adroid.model.Package;
+import com.aurora.adroid.model.v2.AppSearch;
+import com.aurora.adroid.model.v2.Localization;
+import com.aurora.adroid.util.LocalizationUtil;
+import com.aurora.adroid.util.PackageUtil;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+
+public class DatabaseMigration {
+
+    private static final Type STRING_LIST_TYPE = new TypeToken<List<String>>() {
+    }.getType();
+    private static final Type PACKAGE_LIST_TYPE = new TypeToken<List<Package>>() {
+    }.getType();
+    private static final Type LOCALIZATION_MAP_TYPE = new TypeToken<HashMap<String, Localization>>() {
+    }.getType();
+
+    //Search rows are built from the stored apps, DatabaseTask.refreshDisplayFields() later aligns names with the app locale
+    public static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            final Gson gson = new Gson();
+            final List<String> localeChain = LocalizationUtil.getLocaleChain(Locale.getDefault());
+
+            db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `app_fts` USING FTS4(`repoId` TEXT, `packageName` TEXT, "
+                    + "`name` TEXT, `summary` TEXT, `description` TEXT, `authorName` TEXT, notindexed=`repoId`)");
+
+            try (Cursor cursor = db.query("SELECT repoId, packageName, name, summary, description, authorName, localizationMap FROM app")) {
+                final SupportSQLiteStatement statement = db.compileStatement("INSERT OR REPLACE INTO app_fts "
+                        + "(rowid, repoId, packageName, name, summary, description, authorName) VALUES (?, ?, ?, ?, ?, ?, ?)");
+                while (cursor.moveToNext()) {
+                    final App app = new App();
+                    app.setRepoId(cursor.getString(0));
+                    app.setPackageName(cursor.getString(1));
+                    app.setName(cursor.getString(2));
+                    app.setSummary(cursor.getString(3));
+                    app.setDescription(cursor.getString(4));
+                    app.setAuthorName(cursor.getString(5));
+                    app.setLocalizationMap(gson.fromJson(cursor.getString(6), LOCALIZATION_MAP_TYPE));
+                    LocalizationUtil.resolveDisplayFields(app, localeChain);
+
+                    statement.bindLong(1, AppSearch.getRowId(app.getRepoId(), app.getPackageName()));
+                    bind(statement, 2, app.getRepoId());
+                    bind(statement, 3, app.getPackageName());
+                    bind(statement, 4, app.getDisplayName());
+                    bind(statement, 5, app.getDisplaySummary());
+                    bind(statement, 6, getDescription(app, localeChain));
+                    bind(statement, 7, app.getAuthorName());
+                    statement.executeInsert();
+                }
+            }
+        }
+    };
+
+    //authorName only gets its NOCASE collation through a rebuild, categories are split into app_category
+    public static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            final Gson gson = new Gson();
+
+            rebuild(db, "app", "CREATE TABLE IF NOT EXISTS `app` (`repoId` TEXT NOT NULL, `packageName` TEXT NOT NULL, "
+                            + "`added` INTEGER, `authorName` TEXT COLLATE NOCASE, `authorEmail` TEXT, `bitcoin` TEXT, "
+                            + "`categories` TEXT, `description` TEXT, `donate` TEXT, `icon` TEXT, `issueTracker` TEXT, "
+                            + "`lastUpdated` INTEGER, `license` TEXT, `name` TEXT, `sourceCode` TEXT, "
+                            + "`suggestedVersionCode` INTEGER NOT NULL, `suggestedVersionName` TEXT, `summary` TEXT, "
+                            + "`repoName` TEXT, `repoUrl` TEXT, `webSite` TEXT, `pkg` TEXT, `localizationMap` TEXT, "
+                            + "`antiFeatures` TEXT, PRIMARY KEY(`repoId`, `packageName`))",
+                    "repoId, packageName, added, authorName, authorEmail, bitcoin, categories, description, donate, "
+                            + "icon, issueTracker, lastUpdated, license, name, sourceCode, suggestedVersionCode, "
+                            + "suggestedVersionName, summary, repoName, repoUrl, webSite, pkg, localizationMap, antiFeatures");
+
+            db.execSQL("DROP TABLE app_old");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_app_packageName` ON `app` (`packageName`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_app_lastUpdated` ON `app` (`lastUpdated`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_app_added` ON `app` (`added`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_app_authorName` ON `app` (`authorName`)");
+
+            db.execSQL("CREATE TABLE IF NOT EXISTS `app_category` (`category` TEXT NOT NULL COLLATE NOCASE, "
+                    + "`repoId` TEXT NOT NULL, `packageName` TEXT NOT NULL, PRIMARY KEY(`category`, `repoId`, `packageName`))");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_app_category_repoId_packageName` ON `app_category` (`repoId`, `packageName`)");
+
+            try (Cursor cursor = db.query("SELECT repoId, packageName, categories FROM app WHERE categories IS NOT NULL")) {
+                final SupportSQLiteStatement statement = db.compileStatement(
+                        "INSERT OR IGNORE INTO app_category (category, repoId, packageName) VALUES (?, ?, ?)");
+                while (cursor.moveToNext()) {
+                    final List<String> categories = gson.fromJson(cursor.getString(2), STRING_LIST_TYPE);
+                    if (categories == null)
+                        continue;
+                    for (String category : categories) {
+                        if (category == null)
+                            continue;
+                        statement.bindString(1, category);
+                        statement.bindString(2, cursor.getString(0));
+                        statement.bindString(3, cursor.getString(1));
+                        statement.executeInsert();
+                    }
+                }
+            }
+        }
+    };
+
+    //Converted columns move from Gson JSON (TEXT) to BlobCodec (BLOB), the rest is copied as is
+    public static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            final Gson gson = new Gson();
+
+            rebuild(db, "app", "CREATE TABLE IF NOT EXISTS `app` (`repoId` TEXT NOT NULL, `packageName` TEXT NOT NULL, "
+                            + "`added` INTEGER, `authorName` TEXT COLLATE NOCASE, `authorEmail` TEXT, `bitcoin` TEXT, "
+                            + "`categories` BLOB, `description` TEXT, `donate` TEXT, `icon` TEXT, `issueTracker` TEXT, "
+                            + "`lastUpdated` INTEGER, `license` TEXT, `name` TEXT, `sourceCode` TEXT, "
+                            + "`suggestedVersionCode` INTEGER NOT NULL, `suggestedVersionName` TEXT, `summary` TEXT, "
+                            + "`repoName` TEXT, `repoUrl` TEXT, `webSite` TEXT, `pkg` BLOB, `localizationMap` BLOB, "
+                            + "`antiFeatures` BLOB, PRIMARY KEY(`repoId`, `packageName`))",
+                    "repoId, packageName, added, authorName, authorEmail, bitcoin, categories, description, donate, "
+                            + "icon, issueTracker, lastUpdated, license, name, sourceCode, suggestedVersionCode, "
+                            + "suggestedVersionName, summary, repoName, repoUrl, webSite, pkg, localizationMap, antiFeatures");
+
+            try (Cursor cursor = db.query("SELECT rowid, categories, pkg, localizationMap, antiFeatures FROM app_old")) {
+                final SupportSQLiteStatement statement = db.compileStatement(
+                        "UPDATE app SET categories = ?, pkg = ?, localizationMap = ?, antiFeatures = ? WHERE rowid = ?");
+                while (cursor.moveToNext()) {
+                    bind(statement, 1, DatabaseConverter.saveList(gson.fromJson(cursor.getString(1), STRING_LIST_TYPE)));
+                    bind(statement, 2, DatabaseConverter.packageToBytes(gson.fromJson(cursor.getString(2), Package.class)));
+                    bind(statement, 3, DatabaseConverter.localizationMapToBytes(gson.fromJson(cursor.getString(3), LOCALIZATION_MAP_TYPE)));
+                    bind(statement, 4, DatabaseConverter.saveList(gson.fromJson(cursor.getString(4), STRING_LIST_TYPE)));
+                    statement.bindLong(5, cursor.getLong(0));
+                    statement.executeUpdateDelete();
+                }
+            }
+
+            db.execSQL("DROP TABLE app_old");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_app_packageName` ON `app` (`packageName`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_app_lastUpdated` ON `app` (`lastUpdated`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_app_added` ON `app` (`added`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_app_authorName` ON `app` (`authorName`)");
+
+            rebuild(db, "app_package", "CREATE TABLE IF NOT EXISTS `app_package` (`repoId` TEXT NOT NULL, "
+                            + "`packageName` TEXT NOT NULL, `packageList` BLOB, PRIMARY KEY(`repoId`, `packageName`))",
+                    "repoId, packageName, packageList");
+
+            try (Cursor cursor = db.query("SELECT rowid, packageList FROM app_package_old")) {
+                final SupportSQLiteStatement statement = db.compileStatement(
+                        "UPDATE app_package SET packageList = ? WHERE rowid = ?");
+                while (cursor.moveToNext()) {
+                    bind(statement, 1, DatabaseConverter.packageListToBytes(gson.fromJson(cursor.getString(1), PACKAGE_LIST_TYPE)));
+                    statement.bindLong(2, cursor.getLong(0));
+                    statement.executeUpdateDelete();
+                }
+            }
+
+            db.execSQL("DROP TABLE app_package_old");
+
+            rebuild(db, "repo", "CREATE TABLE IF NOT EXISTS `repo` (`timestamp` INTEGER, `version` INTEGER, "
+                            + "`maxage` INTEGER, `name` TEXT, `icon` TEXT, `address` TEXT, `description` TEXT, "
+                            + "`mirrors` BLOB, `repoId` TEXT NOT NULL, PRIMARY KEY(`repoId`))",
+                    "timestamp, version, maxage, name, icon, address, description, mirrors, repoId");
+
+            try (Cursor cursor = db.query("SELECT rowid, mirrors FROM repo_old")) {
+                final SupportSQLiteStatement statement = db.compileStatement(
+                        "UPDATE repo SET mirrors = ? WHERE rowid = ?");
+                while (cursor.moveToNext()) {
+                    bind(statement, 1, DatabaseConverter.saveList(gson.fromJson(cursor.getString(1), STRING_LIST_TYPE)));
+                    statement.bindLong(2, cursor.getLong(0));
+                    statement.executeUpdateDelete();
+                }
+            }
+
+            db.execSQL("DROP TABLE repo_old");
+        }
+    };
+
+    //Description and full localizations move to app_detail, app rows keep a stripped localizationMap
+    public static final Migration MIGRATION_6_7 = new Migration(6, 7) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `app_detail` (`repoId` TEXT NOT NULL, `packageName` TEXT NOT NULL, "
+                    + "`description` TEXT, `localizationMap` BLOB, PRIMARY KEY(`repoId`, `packageName`))");
+            db.execSQL("INSERT INTO app_detail (repoId, packageName, description, localizationMap) "
+                    + "SELECT repoId, packageName, description, localizationMap FROM app");
+
+            try (Cursor cursor = db.query("SELECT repoId, packageName, localizationMap FROM app_detail WHERE localizationMap IS NOT NULL")) {
+                final SupportSQLiteStatement statement = db.compileStatement(
+                        "UPDATE app SET localizationMap = ? WHERE repoId = ? AND packageName = ?");
+                while (cursor.moveToNext()) {
+                    final HashMap<String, Localization> localizationMap = DatabaseConverter.bytesToLocalizationHashMap(cursor.getBlob(2));
+                    bind(statement, 1, DatabaseConverter.localizationMapToBytes(LocalizationUtil.stripLocalizationMap(localizationMap)));
+                    statement.bindString(2, cursor.getString(0));
+                    statement.bindString(3, cursor.getString(1));
+                    statement.executeUpdateDelete();
+                }
+            }
+
+            db.execSQL("UPDATE app SET description = NULL");
+        }
+    };
+
+    //Columns stay empty until DatabaseTask.refreshDisplayFields() runs on the next start
+    public static final Migration MIGRATION_7_8 = new Migration(7, 8) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE `app` ADD COLUMN `displayName` TEXT");
+            db.execSQL("ALTER TABLE `app` ADD COLUMN `displaySummary` TEXT");
+            db.execSQL("ALTER TABLE `app` ADD COLUMN `displayIcon` TEXT");
+        }
+    };
+
+    //Packages are re-encoded with their compatibility flag, app rows get the newest compatible package
+    public static final Migration MIGRATION_8_9 = new Migration(8, 9) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE `app` ADD COLUMN `compatibleVersionCode` INTEGER NOT NULL DEFAULT 0");
+
+            rebuild(db, "app_package", "CREATE TABLE IF NOT EXISTS `app_package` (`repoId` TEXT NOT NULL, "
+                            + "`packageName` TEXT NOT NULL, `packageList` BLOB, PRIMARY KEY(`repoId`, `packageName`))",
+                    "repoId, packageName, packageList");
+
+            try (Cursor cursor = db.query("SELECT rowid, repoId, packageName, packageList FROM app_package_old")) {
+                final SupportSQLiteStatement packageStatement = db.compileStatement(
+                        "UPDATE app_package SET packageList = ? WHERE rowid = ?");
+                final SupportSQLiteStatement appStatement = db.compileStatement(
+                        "UPDATE app SET pkg = ?, compatibleVersionCode = ? WHERE repoId = ? AND packageName = ?");
+                while (cursor.moveToNext()) {
+                    final List<Package> packageList = DatabaseConverter.bytesToPackageList(cursor.getBlob(3));
+                    final Package pkg = PackageUtil.markBestCompatiblePackage(packageList);
+
+                    bind(packageStatement, 1, DatabaseConverter.packageListToBytes(packageList));
+                    packageStatement.bindLong(2, cursor.getLong(0));
+                    packageStatement.executeUpdateDelete();
+
+                    bind(appStatement, 1, DatabaseConverter.packageToBytes(pkg));
+                    appStatement.bindLong(2, pkg == null ? 0 : pkg.getVersionCode());
+                    appStatement.bindString(3, cursor.getString(1));
+                    appStatement.bindString(4, cursor.getString(2));
+                    appStatement.executeUpdateDelete();
+                }
+            }
+
+            db.execSQL("DROP TABLE app_package_old");
+        }
+    };
+
+    //Existing rows keep fingerprint 0, so their packages are rewritten once on the next sync
+    public static final Migration MIGRATION_9_10 = new Migration(9, 10) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE `app_package` ADD COLUMN `fingerprint` INTEGER NOT NULL DEFAULT 0");
+        }
+    };
+
+    public static final Migration MIGRATION_10_11 = new Migration(10, 11) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `app_pending` (`repoId` TEXT NOT NULL, `packageName` TEXT NOT NULL, "
+                    + "PRIMARY KEY(`repoId`, `packageName`))");
+        }
+    };
+
+    //SQLite cannot change a column type in place, the table is renamed and copied over with its rowids
+    private static void rebuild(SupportSQLiteDatabase db, String table, String createSql, String columns) {
+        db.execSQL("ALTER TABLE `" + table + "` RENAME TO `" + table + "_old`");
+        db.execSQL(createSql);
+        db.execSQL("INSERT INTO `" + table + "` (rowid, " + columns + ") SELECT rowid, " + columns + " FROM `" + table + "_old`");
+    }
+
+    private static String getDescription(App app, List<String> localeChain) {
+        if (app.getLocalizationMap() != null) {
+            for (String localeKey : localeChain) {
+                final Localization localization = app.getLocalizationMap().get(localeKey);
+                if (localization != null && localization.getDescription() != null)
+                    return localization.getDescription();
+            }
+        }
+        return app.getDescription();
+    }
+
+    private static void bind(SupportSQLiteStatement statement, int index, String value) {
+        if (value == null)
+            statement.bindNull(index);
+        else
+            statement.bindString(index, value);
+    }
+
+    private static void bind(SupportSQLiteStatement statement, int index, byte[] bytes) {
+        if (bytes == null)
+            statement.bindNull(index);
+        else
+            statement.bindBlob(index, bytes);
+    }
+}
@@ -40,6 +40,9 @@ public interface RepoDao {
     @Query("SELECT * FROM `repo` WHERE repoId = :repoId LIMIT 1")
     Repo getRepoByRepoId(String repoId);
 
+    @Query("DELETE FROM `repo` WHERE repoId = :repoId")
+    void clear(String repoId);
+
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     void insertAll(List<Repo> indexList);
 
@@ -0,0 +1,305 @@
+/*
+ * Aurora Droid
+ * Copyright (C) 2019-20, Rahul Kumar Patel <whyorean@gmail.com>
+ *
+ * Aurora Droid is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Aurora Droid is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Aurora Droid.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.aurora.adroid.database;
+
+import android.content.Context;
+
+import com.aurora.adroid.manager.LocaleManager;
+import com.aurora.adroid.model.App;
+import com.aurora.adroid.model.AppStamp;
+import com.aurora.adroid.model.Package;
+import com.aurora.adroid.model.v2.AppCategory;
+import com.aurora.adroid.model.v2.AppDetail;
+import com.aurora.adroid.model.v2.AppPackage;
+import com.aurora.adroid.model.v2.AppPending;
+import com.aurora.adroid.model.v2.AppSearch;
+import com.aurora.adroid.model.v2.Repo;
+import com.aurora.adroid.util.LocalizationUtil;
+import com.aurora.adroid.util.PackageUtil;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class RepoWriter {
+
+    private static final int CHUNK_SIZE = 200;
+    private static final int MAX_PENDING_CHUNKS = 2;
+    private static final int MAX_QUERY_ARGS = 500;
+    private static final long SUBMIT_TIMEOUT = 1;
+
+    //All repo writes are funneled through one thread, each chunk is a short transaction of its own
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor();
+
+    private final AppDatabase appDatabase;
+    private final String repoId;
+    private final Semaphore semaphore = new Semaphore(MAX_PENDING_CHUNKS);
+    private final AtomicReference<Exception> error = new AtomicReference<>();
+
+    //Apps stored for this repo that the index has not mentioned yet, leftovers are stale
+    private final Map<String, AppStamp> storedMap = new HashMap<>();
+    //Unchanged apps with the fingerprint of their stored packages
+    private final Map<String, Long> unchangedMap = new HashMap<>();
+    private final List<String> localeChain;
+
+    private List<App> newAppList = new ArrayList<>(CHUNK_SIZE);
+    private List<App> changedAppList = new ArrayList<>(CHUNK_SIZE);
+    private List<AppPackage> appPackageList = new ArrayList<>(CHUNK_SIZE);
+
+    public RepoWriter(Context context, String repoId) {
+        this.appDatabase = AppDatabase.getDatabase(context);
+        this.repoId = repoId;
+        this.localeChain = LocalizationUtil.getLocaleChain(new LocaleManager(context).getLocale());
+
+        //A sync killed before commit or abort leaves its rows pending, drop them so they are written afresh
+        try {
+            WRITER.submit(this::discardPending).get();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+
+        for (AppStamp appStamp : appDatabase.appDao().getAppStamps(repoId)) {
+            storedMap.put(appStamp.getPackageName(), appStamp);
+        }
+    }
+
+    public void addApp(App app) throws Exception {
+        final String packageName = app.getPackageName();
+        final AppStamp appStamp = storedMap.remove(packageName);
+        if (appStamp == null) {
+            newAppList.add(app);
+        } else if (Objects.equals(appStamp.getLastUpdated(), app.getLastUpdated())) {
+            unchangedMap.put(packageName, appStamp.getPackageFingerprint());
+            return;
+        } else {
+            changedAppList.add(app);
+        }
+
+        if (newAppList.size() + changedAppList.size() >= CHUNK_SIZE)
+            flush();
+    }
+
+    public void addAppPackage(AppPackage appPackage) throws Exception {
+        //Repos archive old apks without bumping lastUpdated, so unchanged apps compare their package fingerprint
+        appPackage.setFingerprint(PackageUtil.getPackageFingerprint(appPackage.getPackageList()));
+        final Long storedFingerprint = unchangedMap.get(appPackage.getPackageName());
+        if (storedFingerprint != null && storedFingerprint == appPackage.getFingerprint())
+            return;
+
+        appPackageList.add(appPackage);
+        if (appPackageList.size() >= CHUNK_SIZE)
+            flush();
+    }
+
+    public void commit(Repo repo) throws Exception {
+        flush();
+
+        final List<String> staleList = new ArrayList<>(storedMap.keySet());
+        for (int i = 0; i < staleList.size(); i += MAX_QUERY_ARGS) {
+            final List<String> packageNames = staleList.subList(i, Math.min(i + MAX_QUERY_ARGS, staleList.size()));
+            final List<Long> rowIds = new ArrayList<>();
+            for (String packageName : packageNames)
+                rowIds.add(AppSearch.getRowId(repoId, packageName));
+            submit(() -> {
+                appDatabase.appDao().delete(repoId, packageNames);
+                appDatabase.appPackageDao().delete(repoId, packageNames);
+                appDatabase.appCategoryDao().delete(repoId, packageNames);
+                appDatabase.appDetailDao().delete(repoId, packageNames);
+                appDatabase.appSearchDao().delete(rowIds);
+            });
+        }
+
+        //Clearing the pending set is what makes this sync final
+        submit(() -> {
+            repo.setRepoId(repoId);
+            appDatabase.repoDao().insert(repo);
+            appDatabase.appPendingDao().clear(repoId);
+        });
+        await();
+    }
+
+    //Deletes the rows this sync wrote, apps it did not touch stay as they were
+    public void abort() {
+        newAppList.clear();
+        changedAppList.clear();
+        appPackageList.clear();
+        semaphore.acquireUninterruptibly(MAX_PENDING_CHUNKS);
+        try {
+            WRITER.submit(this::discardPending).get();
+        } catch (Exception ignored) {
+        } finally {
+            semaphore.release(MAX_PENDING_CHUNKS);
+        }
+    }
+
+    //Changed apps lose their old rows too, they come back as new apps on the next sync
+    private void discardPending() {
+        appDatabase.runInTransaction(() -> {
+            final List<String> pendingList = appDatabase.appPendingDao().getPackageNames(repoId);
+            for (int i = 0; i < pendingList.size(); i += MAX_QUERY_ARGS) {
+                final List<String> packageNames = pendingList.subList(i, Math.min(i + MAX_QUERY_ARGS, pendingList.size()));
+                final List<Long> rowIds = new ArrayList<>();
+                for (String packageName : packageNames)
+                    rowIds.add(AppSearch.getRowId(repoId, packageName));
+                appDatabase.appDao().delete(repoId, packageNames);
+                appDatabase.appPackageDao().delete(repoId, packageNames);
+                appDatabase.appCategoryDao().delete(repoId, packageNames);
+                appDatabase.appDetailDao().delete(repoId, packageNames);
+                appDatabase.appSearchDao().delete(rowIds);
+            }
+            appDatabase.appPendingDao().clear(repoId);
+        });
+    }
+
+    private void flush() throws Exception {
+        if (newAppList.isEmpty() && changedAppList.isEmpty() && appPackageList.isEmpty())
+            return;
+
+        final List<App> newApps = newAppList;
+        final List<App> changedApps = changedAppList;
+        final List<AppPackage> appPackages = appPackageList;
+
+        newAppList = new ArrayList<>(CHUNK_SIZE);
+        changedAppList = new ArrayList<>(CHUNK_SIZE);
+        appPackageList = new ArrayList<>(CHUNK_SIZE);
+
+        final Set<String> pendingSet = new LinkedHashSet<>();
+        final List<Long> rowIds = new ArrayList<>();
+        final List<String> changedPackageNames = new ArrayList<>();
+        final List<AppSearch> appSearchList = new ArrayList<>();
+        final List<AppCategory> appCategoryList = new ArrayList<>();
+        final List<AppDetail> appDetailList = new ArrayList<>();
+        for (App app : changedApps) {
+            rowIds.add(AppSearch.getRowId(repoId, app.getPackageName()));
+            changedPackageNames.add(app.getPackageName());
+        }
+        for (App app : newApps)
+            pendingSet.add(app.getPackageName());
+        pendingSet.addAll(changedPackageNames);
+        for (AppPackage appPackage : appPackages)
+            pendingSet.add(appPackage.getPackageName());
+
+        final List<AppPending> appPendingList = new ArrayList<>();
+        for (String packageName : pendingSet)
+            appPendingList.add(new AppPending(repoId, packageName));
+
+        for (App app : newApps) {
+            LocalizationUtil.resolveDisplayFields(app, localeChain);
+            appSearchList.add(getAppSearch(app));
+            addAppCategories(appCategoryList, app);
+            appDetailList.add(splitAppDetail(app));
+        }
+        for (App app : changedApps) {
+            LocalizationUtil.resolveDisplayFields(app, localeChain);
+            appSearchList.add(getAppSearch(app));
+            addAppCategories(appCategoryList, app);
+            appDetailList.add(splitAppDetail(app));
+        }
+
+        //Apps precede their packages in the index, so their rows are already queued when these run
+        final List<Package> bestPackageList = new ArrayList<>();
+        for (AppPackage appPackage : appPackages)
+            bestPackageList.add(PackageUtil.markBestCompatiblePackage(appPackage.getPackageList()));
+
+        submit(() -> {
+            appDatabase.appPendingDao().insertAll(appPendingList);
+            appDatabase.appDao().insertAll(newApps);
+            appDatabase.appDao().updateAll(changedApps);
+            appDatabase.appPackageDao().insertAll(appPackages);
+            for (int i = 0; i < appPackages.size(); i++) {
+                final Package pkg = bestPackageList.get(i);
+                appDatabase.appDao().updateCompatiblePackage(repoId, appPackages.get(i).getPackageName(),
+                        pkg, pkg == null ? 0 : pkg.getVersionCode());
+            }
+            appDatabase.appSearchDao().delete(rowIds);
+            appDatabase.appSearchDao().insertAll(appSearchList);
+            appDatabase.appCategoryDao().delete(repoId, changedPackageNames);
+            appDatabase.appCategoryDao().insertAll(appCategoryList);
+            appDatabase.appDetailDao().insertAll(appDetailList);
+        });
+    }
+
+    //Moves description and full localizations off the app row, must run after getAppSearch()
+    private AppDetail splitAppDetail(App app) {
+        final AppDetail appDetail = new AppDetail(repoId, app.getPackageName(), app.getDescription(), app.getLocalizationMap());
+        app.setDescription(null);
+        app.setLocalizationMap(LocalizationUtil.stripLocalizationMap(app.getLocalizationMap()));
+        return appDetail;
+    }
+
+    private void addAppCategories(List<AppCategory> appCategoryList, App app) {
+        if (app.getCategories() == null)
+            return;
+        for (String category : app.getCategories()) {
+            if (category != null)
+                appCategoryList.add(new AppCategory(category, repoId, app.getPackageName()));
+        }
+    }
+
+    private AppSearch getAppSearch(App app) {
+        final AppSearch appSearch = new AppSearch();
+        appSearch.setRowId(AppSearch.getRowId(repoId, app.getPackageName()));
+        appSearch.setRepoId(repoId);
+        appSearch.setPackageName(app.getPackageName());
+        appSearch.setName(app.getDisplayName());
+        appSearch.setSummary(app.getDisplaySummary());
+        appSearch.setDescription(LocalizationUtil.resolveDescription(app.getDescription(), app.getLocalizationMap(), localeChain));
+        appSearch.setAuthorName(app.getAuthorName());
+        return appSearch;
+    }
+
+    //Blocks the parser while the writer is MAX_PENDING_CHUNKS behind, bailing out once the writer has failed
+    private void submit(Runnable runnable) throws Exception {
+        rethrow();
+        while (!semaphore.tryAcquire(SUBMIT_TIMEOUT, TimeUnit.SECONDS))
+            rethrow();
+        WRITER.execute(() -> {
+            try {
+                if (error.get() == null)
+                    appDatabase.runInTransaction(runnable);
+            } catch (Exception e) {
+                error.compareAndSet(null, e);
+            } finally {
+                semaphore.release();
+            }
+        });
+    }
+
+    private void await() throws Exception {
+        semaphore.acquire(MAX_PENDING_CHUNKS);
+        semaphore.release(MAX_PENDING_CHUNKS);
+        rethrow();
+    }
+
+    private void rethrow() throws Exception {
+        final Exception exception = error.get();
+        if (exception != null)
+            throw exception;
+    }
+}
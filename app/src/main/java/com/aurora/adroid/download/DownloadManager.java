@@ -27,12 +27,9 @@ import com.tonyodev.fetch2.Download;
 import com.tonyodev.fetch2.Fetch;
 import com.tonyodev.fetch2.FetchConfiguration;
 import com.tonyodev.fetch2.FetchListener;
-import com.tonyodev.fetch2okhttp.OkHttpDownloader;
 
 import java.util.List;
 
-import okhttp3.OkHttpClient;
-
 public class DownloadManager {
 
     private static volatile DownloadManager instance;
@@ -59,7 +56,7 @@ public class DownloadManager {
     private static Fetch getFetch(Context context) {
         FetchConfiguration.Builder fetchConfiguration = new FetchConfiguration.Builder(context)
                 .setDownloadConcurrentLimit(Util.getActiveDownloadCount(context))
-                .setHttpDownloader(new OkHttpDownloader(getOkHttpClient(context), Util.getDownloadStrategy(context)))
+                .setHttpDownloader(new VerifyingDownloader(context, HttpClient.getInstance(context), Util.getDownloadStrategy(context)))
                 .setNamespace(Constants.TAG)
                 .enableLogging(Util.isFetchDebugEnabled(context))
                 .enableHashCheck(true)
@@ -71,13 +68,6 @@ public class DownloadManager {
         return Fetch.Impl.getInstance(fetchConfiguration.build());
     }
 
-    private static OkHttpClient getOkHttpClient(Context context) {
-        OkHttpClient.Builder builder = new OkHttpClient.Builder();
-        if (Util.isNetworkProxyEnabled(context))
-            builder.proxy(Util.getNetworkProxy(context));
-        return builder.build();
-    }
-
     public static void updateOngoingDownloads(Fetch fetch, List<String> packageList, Download download,
                                               FetchListener fetchListener) {
         if (packageList.contains(download.getTag())) {
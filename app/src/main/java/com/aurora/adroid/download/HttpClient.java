@@ -0,0 +1,99 @@
+/*
+ * Aurora Droid
+ * Copyright (C) 2019-20, Rahul Kumar Patel <whyorean@gmail.com>
+ *
+ * Aurora Droid is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Aurora Droid is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Aurora Droid.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.aurora.adroid.download;
+
+import android.content.Context;
+
+import com.aurora.adroid.util.Util;
+
+import java.io.IOException;
+import java.net.Proxy;
+import java.net.ProxySelector;
+import java.net.SocketAddress;
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+
+//One client for the whole app, so repo checks, images & downloads share connections and the per-host budget
+public class HttpClient {
+
+    public static final int MAX_REQUESTS_PER_HOST = 8;
+
+    private static final int MAX_REQUESTS = 64;
+    private static final int MAX_IDLE_CONNECTIONS = 16;
+
+    private static volatile OkHttpClient instance;
+
+    public static OkHttpClient getInstance(Context context) {
+        if (instance == null) {
+            synchronized (HttpClient.class) {
+                if (instance == null) {
+                    final Dispatcher dispatcher = new Dispatcher();
+                    dispatcher.setMaxRequests(MAX_REQUESTS);
+                    dispatcher.setMaxRequestsPerHost(MAX_REQUESTS_PER_HOST);
+
+                    instance = new OkHttpClient.Builder()
+                            .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, 5, TimeUnit.MINUTES))
+                            .dispatcher(dispatcher)
+                            .proxySelector(new PreferenceProxySelector(context.getApplicationContext()))
+                            .connectTimeout(15, TimeUnit.SECONDS)
+                            .readTimeout(30, TimeUnit.SECONDS)
+                            .build();
+                }
+            }
+        }
+        return instance;
+    }
+
+    //Reads the proxy preferences for every new route, so a change applies without rebuilding the client
+    private static class PreferenceProxySelector extends ProxySelector {
+
+        private final Context context;
+        private volatile Proxy lastProxy = Proxy.NO_PROXY;
+
+        private PreferenceProxySelector(Context context) {
+            this.context = context;
+        }
+
+        @Override
+        public List<Proxy> select(URI uri) {
+            final Proxy proxy = Util.isNetworkProxyEnabled(context)
+                    ? Util.getNetworkProxy(context)
+                    : Proxy.NO_PROXY;
+
+            //Pooled connections still go through the old route, drop the idle ones
+            if (!proxy.equals(lastProxy)) {
+                lastProxy = proxy;
+                if (instance != null)
+                    instance.connectionPool().evictAll();
+            }
+            return Collections.singletonList(proxy);
+        }
+
+        @Override
+        public void connectFailed(URI uri, SocketAddress socketAddress, IOException e) {
+        }
+    }
+}
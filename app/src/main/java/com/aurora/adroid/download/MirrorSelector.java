@@ -0,0 +1,394 @@
+/*
+ * Aurora Droid
+ * Copyright (C) 2019-20, Rahul Kumar Patel <whyorean@gmail.com>
+ *
+ * Aurora Droid is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Aurora Droid is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Aurora Droid.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.aurora.adroid.download;
+
+import android.content.Context;
+
+import com.aurora.adroid.database.AppDatabase;
+import com.aurora.adroid.manager.RepoSyncManager;
+import com.aurora.adroid.model.StaticRepo;
+import com.aurora.adroid.model.v2.Repo;
+import com.aurora.adroid.util.Log;
+import com.aurora.adroid.util.Util;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Observable;
+import io.reactivex.schedulers.Schedulers;
+import okhttp3.Call;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.ForwardingSource;
+import okio.Okio;
+
+import static com.aurora.adroid.Constants.SIGNED_FILE_NAME;
+
+public class MirrorSelector {
+
+    private static final double ALPHA = 0.3;
+    private static final long PROBE_INTERVAL = TimeUnit.MINUTES.toMillis(15);
+    private static final long FAILURE_COOLDOWN = TimeUnit.MINUTES.toMillis(10);
+
+    private static volatile MirrorSelector instance;
+
+    private final Map<String, List<String>> mirrorMap = new HashMap<>();
+    private final Map<String, Stats> statsMap = new HashMap<>();
+
+    public static MirrorSelector getInstance() {
+        if (instance == null) {
+            synchronized (MirrorSelector.class) {
+                if (instance == null) {
+                    instance = new MirrorSelector();
+                }
+            }
+        }
+        return instance;
+    }
+
+    //Registers every known repo along with the mirrors announced by its last synced index, then probes them
+    public void refresh(Context context) {
+        for (StaticRepo staticRepo : RepoSyncManager.getInstance(context).getRepoList()) {
+            final Repo repo = AppDatabase.getDatabase(context).repoDao().getRepoByRepoId(staticRepo.getRepoId());
+            register(context, staticRepo, repo == null ? null : repo.getMirrors());
+        }
+        probeAll(HttpClient.getInstance(context));
+    }
+
+    public void register(Context context, StaticRepo staticRepo, Collection<String> repoMirrors) {
+        final Set<String> urlSet = new LinkedHashSet<>();
+
+        //Ticking "use mirror" keeps the primary only as a last resort
+        if (!Util.isMirrorChecked(context, staticRepo.getRepoId()))
+            urlSet.add(normalize(staticRepo.getRepoUrl()));
+        if (staticRepo.getRepoMirrors() != null)
+            for (String mirror : staticRepo.getRepoMirrors())
+                urlSet.add(normalize(mirror));
+        if (repoMirrors != null)
+            for (String mirror : repoMirrors)
+                urlSet.add(normalize(mirror));
+        urlSet.add(normalize(staticRepo.getRepoUrl()));
+        urlSet.remove(StringUtils.EMPTY);
+
+        synchronized (this) {
+            mirrorMap.put(staticRepo.getRepoId(), new ArrayList<>(urlSet));
+        }
+    }
+
+    //Races a HEAD against every mirror of every repo, fills in latency and health
+    public void probeAll(OkHttpClient client) {
+        final List<String> urlList = new ArrayList<>();
+        synchronized (this) {
+            final long now = System.currentTimeMillis();
+            for (List<String> candidateList : mirrorMap.values()) {
+                if (candidateList.size() < 2)
+                    continue;
+                for (String url : candidateList) {
+                    final Stats stats = getStats(url);
+                    if (now - stats.lastProbed > PROBE_INTERVAL)
+                        urlList.add(url);
+                }
+            }
+        }
+
+        if (urlList.isEmpty())
+            return;
+
+        final OkHttpClient probeClient = client.newBuilder()
+                .callTimeout(5, TimeUnit.SECONDS)
+                .build();
+
+        Observable.fromIterable(urlList)
+                .flatMap(url -> Observable
+                        .fromCallable(() -> probe(probeClient, url))
+                        .subscribeOn(Schedulers.io()))
+                .ignoreElements()
+                .blockingAwait();
+    }
+
+    public synchronized String select(String repoId, String defaultUrl) {
+        final List<String> candidateList = mirrorMap.get(repoId);
+        if (candidateList == null || candidateList.isEmpty())
+            return normalize(defaultUrl);
+
+        final long now = System.currentTimeMillis();
+        String bestUrl = null;
+        double bestScore = Double.MAX_VALUE;
+        for (String url : candidateList) {
+            final Stats stats = getStats(url);
+            if (!stats.isHealthy(now))
+                continue;
+            final double score = stats.getScore();
+            if (bestUrl == null || score < bestScore) {
+                bestUrl = url;
+                bestScore = score;
+            }
+        }
+
+        //Every mirror failed recently, fall back to the preferred one
+        return bestUrl == null ? candidateList.get(0) : bestUrl;
+    }
+
+    //Same path on the best healthy mirror not tried yet, null once every mirror of the repo was tried
+    public synchronized String failover(String url, Set<String> triedSet) {
+        final String baseUrl = findBaseUrl(url);
+        if (baseUrl == null)
+            return null;
+
+        triedSet.add(baseUrl);
+        final String path = url.substring(baseUrl.length());
+        final long now = System.currentTimeMillis();
+
+        String bestUrl = null;
+        double bestScore = Double.MAX_VALUE;
+        for (List<String> candidateList : mirrorMap.values()) {
+            if (!candidateList.contains(baseUrl))
+                continue;
+            for (String candidate : candidateList) {
+                if (triedSet.contains(candidate))
+                    continue;
+                final Stats stats = getStats(candidate);
+                final double score = stats.isHealthy(now) ? stats.getScore() : Double.MAX_VALUE;
+                if (bestUrl == null || score < bestScore) {
+                    bestUrl = candidate;
+                    bestScore = score;
+                }
+            }
+        }
+        return bestUrl == null ? null : bestUrl + path;
+    }
+
+    //Retries a failed transfer on the next mirror and scores the mirror that served it, Fetch only sees the final outcome
+    public Interceptor getFailoverInterceptor() {
+        return chain -> {
+            final Set<String> triedSet = new HashSet<>();
+            Request request = chain.request();
+            while (true) {
+                final String url = request.url().toString();
+                Response response = null;
+                IOException exception = null;
+                try {
+                    response = chain.proceed(request);
+                    if (response.isSuccessful())
+                        return meter(chain.call(), url, response);
+                    if (!isMirrorFailure(response.code()))
+                        return response;
+                } catch (IOException e) {
+                    if (chain.call().isCanceled())
+                        throw e;
+                    exception = e;
+                }
+
+                reportFailure(url);
+                final String nextUrl = failover(url, triedSet);
+                if (nextUrl == null) {
+                    if (exception != null)
+                        throw exception;
+                    return response;
+                }
+
+                if (response != null)
+                    response.close();
+                Log.d("Failing over to %s", nextUrl);
+                request = request.newBuilder().url(nextUrl).build();
+            }
+        };
+    }
+
+    //Reports throughput and success once the body is read, or a failure if the transfer breaks midway
+    private Response meter(Call call, String url, Response response) {
+        final ResponseBody body = response.body();
+        if (body == null) {
+            reportSuccess(url);
+            return response;
+        }
+
+        final long start = System.currentTimeMillis();
+        final ForwardingSource meteredSource = new ForwardingSource(body.source()) {
+            private long total = 0;
+            private boolean reported = false;
+
+            @Override
+            public long read(@NotNull Buffer sink, long byteCount) throws IOException {
+                final long read;
+                try {
+                    read = super.read(sink, byteCount);
+                } catch (IOException e) {
+                    if (!reported && !call.isCanceled()) {
+                        reported = true;
+                        reportFailure(url);
+                    }
+                    throw e;
+                }
+                if (read == -1)
+                    report();
+                else
+                    total += read;
+                return read;
+            }
+
+            @Override
+            public void close() throws IOException {
+                report();
+                super.close();
+            }
+
+            private void report() {
+                if (reported || total == 0)
+                    return;
+                reported = true;
+                final long elapsed = System.currentTimeMillis() - start;
+                if (elapsed > 0)
+                    reportThroughput(url, total * 1000 / elapsed);
+                reportSuccess(url);
+            }
+        };
+
+        return response.newBuilder()
+                .body(ResponseBody.create(Okio.buffer(meteredSource), body.contentType(), body.contentLength()))
+                .build();
+    }
+
+    public synchronized void reportThroughput(String url, long bytesPerSecond) {
+        final Stats stats = findStats(url);
+        if (stats != null && bytesPerSecond > 0) {
+            stats.throughput = stats.throughput == 0
+                    ? bytesPerSecond
+                    : ALPHA * bytesPerSecond + (1 - ALPHA) * stats.throughput;
+        }
+    }
+
+    public synchronized void reportSuccess(String url) {
+        final Stats stats = findStats(url);
+        if (stats != null)
+            stats.failures = 0;
+    }
+
+    public synchronized void reportFailure(String url) {
+        final Stats stats = findStats(url);
+        if (stats != null) {
+            stats.failures++;
+            stats.lastFailure = System.currentTimeMillis();
+        }
+    }
+
+    private boolean probe(OkHttpClient client, String url) {
+        final okhttp3.Request request = new okhttp3.Request.Builder()
+                .url(url + "/" + SIGNED_FILE_NAME)
+                .head()
+                .build();
+        final long start = System.currentTimeMillis();
+        try (Response response = client.newCall(request).execute()) {
+            final long latency = System.currentTimeMillis() - start;
+            synchronized (this) {
+                final Stats stats = getStats(url);
+                stats.lastProbed = System.currentTimeMillis();
+                if (response.isSuccessful()) {
+                    stats.latency = stats.latency == 0
+                            ? latency
+                            : ALPHA * latency + (1 - ALPHA) * stats.latency;
+                    stats.failures = 0;
+                } else {
+                    stats.failures++;
+                    stats.lastFailure = stats.lastProbed;
+                }
+            }
+            return response.isSuccessful();
+        } catch (Exception e) {
+            Log.d("Mirror unreachable : %s", url);
+            reportFailure(url);
+            synchronized (this) {
+                getStats(url).lastProbed = System.currentTimeMillis();
+            }
+            return false;
+        }
+    }
+
+    private Stats getStats(String url) {
+        Stats stats = statsMap.get(url);
+        if (stats == null) {
+            stats = new Stats();
+            statsMap.put(url, stats);
+        }
+        return stats;
+    }
+
+    private Stats findStats(String url) {
+        final String baseUrl = findBaseUrl(url);
+        return baseUrl == null ? null : statsMap.get(baseUrl);
+    }
+
+    private String findBaseUrl(String url) {
+        if (url == null)
+            return null;
+        for (List<String> candidateList : mirrorMap.values()) {
+            for (String baseUrl : candidateList) {
+                if (url.startsWith(baseUrl + "/"))
+                    return baseUrl;
+            }
+        }
+        return null;
+    }
+
+    //Missing files and server errors are worth another mirror, other client errors would fail there too
+    private static boolean isMirrorFailure(int code) {
+        return code == 404 || code >= 500;
+    }
+
+    private static String normalize(String url) {
+        return StringUtils.removeEnd(StringUtils.trimToEmpty(url), "/");
+    }
+
+    private static class Stats {
+        private double latency;
+        private double throughput;
+        private int failures;
+        private long lastFailure;
+        private long lastProbed;
+
+        private boolean isHealthy(long now) {
+            return failures == 0 || now - lastFailure > FAILURE_COOLDOWN;
+        }
+
+        //Estimated millis to fetch one megabyte, unknown mirrors rank behind measured ones
+        private double getScore() {
+            if (latency == 0 && throughput == 0)
+                return Double.MAX_VALUE / 2;
+            final double transfer = throughput > 0 ? FileUtils.ONE_MB * 1000d / throughput : 0;
+            return latency + transfer;
+        }
+    }
+}
@@ -68,10 +68,7 @@ public class RequestBuilder {
         final List<Request> requestList = new ArrayList<>();
         for (StaticRepo staticRepo : staticRepoList) {
 
-            String repoUrl = staticRepo.getRepoUrl();
-
-            if (Util.isMirrorChecked(context, staticRepo.getRepoId()) && staticRepo.getRepoMirrors() != null)
-                repoUrl = staticRepo.getRepoMirrors()[0];
+            final String repoUrl = MirrorSelector.getInstance().select(staticRepo.getRepoId(), staticRepo.getRepoUrl());
 
             final RepoRequest request = new RepoRequest(repoUrl + "/" + SIGNED_FILE_NAME,
                     PathUtil.getRepoDirectory(context) + staticRepo.getRepoId() + "." + Constants.JAR);
@@ -88,6 +85,7 @@ public class RequestBuilder {
     }
 
     private static void addAppExtras(Context context, Request request, App app, Package pkg) {
+        final Package targetPkg = pkg == null ? app.getPkg() : pkg;
         final Map<String, String> stringMap = new HashMap<>();
         stringMap.put(Constants.DOWNLOAD_PACKAGE_NAME, app.getPackageName());
         stringMap.put(Constants.DOWNLOAD_DISPLAY_NAME, LocalizationUtil.getLocalizedName(context, app));
@@ -99,6 +97,10 @@ public class RequestBuilder {
         stringMap.put(Constants.DOWNLOAD_APK_NAME, pkg == null
                 ? app.getPkg().getApkName()
                 : pkg.getApkName());
+        if (targetPkg.getHash() != null) {
+            stringMap.put(Constants.DOWNLOAD_HASH, targetPkg.getHash());
+            stringMap.put(Constants.DOWNLOAD_HASH_TYPE, targetPkg.getHashType());
+        }
 
         final Extras extras = new Extras(stringMap);
         request.setExtras(extras);
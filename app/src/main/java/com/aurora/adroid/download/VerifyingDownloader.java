@@ -0,0 +1,169 @@
+/*
+ * Aurora Droid
+ * Copyright (C) 2019-20, Rahul Kumar Patel <whyorean@gmail.com>
+ *
+ * Aurora Droid is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Aurora Droid is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Aurora Droid.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.aurora.adroid.download;
+
+import android.content.Context;
+
+import com.aurora.adroid.Constants;
+import com.aurora.adroid.util.Util;
+import com.tonyodev.fetch2.Downloader;
+import com.tonyodev.fetch2okhttp.OkHttpDownloader;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.HashingSource;
+import okio.Okio;
+
+//Hashes apk bodies while Fetch streams them to disk, so the index hash can be checked without re-reading the file
+public class VerifyingDownloader extends OkHttpDownloader {
+
+    private static final String SHA_256 = "sha256";
+
+    private static final long MIN_SEGMENT_SIZE = 4 * 1024 * 1024;
+    private static final long MAX_STREAMED_HASH_SIZE = 16 * 1024 * 1024;
+    private static final int MAX_SEGMENTS = 4;
+
+    private static final Map<String, Digest> digestMap = new ConcurrentHashMap<>();
+
+    private final Context context;
+
+    public VerifyingDownloader(Context context, OkHttpClient okHttpClient, FileDownloaderType fileDownloaderType) {
+        super(okHttpClient.newBuilder()
+                .addInterceptor(new DigestInterceptor())
+                .addInterceptor(MirrorSelector.getInstance().getFailoverInterceptor())
+                .build(), fileDownloaderType);
+        this.context = context.getApplicationContext();
+    }
+
+    //Split large files into range segments, keeping all active downloads within the per-host budget
+    @Override
+    public Integer getFileSlicingCount(@NotNull Downloader.ServerRequest request, long contentLength) {
+        //Smaller index apks stay in one body so their SHA-256 is streamed, larger ones are hashed once after merging
+        if (hasIndexHash(request) && contentLength <= MAX_STREAMED_HASH_SIZE)
+            return 1;
+
+        final int activeDownloads = Math.max(1, Util.getActiveDownloadCount(context));
+        final int budget = Math.max(1, Math.min(MAX_SEGMENTS, HttpClient.MAX_REQUESTS_PER_HOST / activeDownloads));
+        final long bySize = Math.max(1, contentLength / MIN_SEGMENT_SIZE);
+        return (int) Math.min(budget, bySize);
+    }
+
+    @Override
+    public boolean verifyContentHash(@NotNull Downloader.ServerRequest request, @NotNull String hash) {
+        final Digest digest = digestMap.remove(request.getUrl());
+
+        //Not an apk from the index, keep Fetch's own md5 check
+        if (!hasIndexHash(request))
+            return super.verifyContentHash(request, hash);
+
+        final String expectedHash = request.getExtras().getString(Constants.DOWNLOAD_HASH, StringUtils.EMPTY);
+
+        final File file = new File(request.getFile());
+        if (digest != null && digest.length == file.length())
+            return expectedHash.equalsIgnoreCase(digest.hash);
+
+        //Segmented or resumed transfers never saw the whole body, hash the merged file once
+        final HashingSource hashingSource;
+        try {
+            hashingSource = HashingSource.sha256(Okio.source(file));
+        } catch (IOException e) {
+            return false;
+        }
+        try (BufferedSource source = Okio.buffer(hashingSource)) {
+            source.readAll(Okio.blackhole());
+            return expectedHash.equalsIgnoreCase(hashingSource.hash().hex());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static boolean hasIndexHash(Downloader.ServerRequest request) {
+        final String expectedHash = request.getExtras().getString(Constants.DOWNLOAD_HASH, StringUtils.EMPTY);
+        final String hashType = request.getExtras().getString(Constants.DOWNLOAD_HASH_TYPE, SHA_256);
+        return !expectedHash.isEmpty() && SHA_256.equalsIgnoreCase(hashType);
+    }
+
+    private static class Digest {
+        private final String hash;
+        private final long length;
+
+        private Digest(String hash, long length) {
+            this.hash = hash;
+            this.length = length;
+        }
+    }
+
+    private static class DigestInterceptor implements Interceptor {
+
+        @NotNull
+        @Override
+        public Response intercept(@NotNull Chain chain) throws IOException {
+            final Response response = chain.proceed(chain.request());
+            final String url = chain.request().url().toString();
+            final String range = chain.request().header("Range");
+            final ResponseBody body = response.body();
+
+            digestMap.remove(url);
+
+            if (body == null || !response.isSuccessful() || !url.endsWith(".apk"))
+                return response;
+
+            //Only a body running from byte zero to the end can produce the hash of the whole file
+            if (response.code() == 206 && !"bytes=0-".equals(range))
+                return response;
+
+            final long contentLength = body.contentLength();
+            final HashingSource hashingSource = HashingSource.sha256(body.source());
+            final ForwardingSource countingSource = new ForwardingSource(hashingSource) {
+                private long total = 0;
+                private boolean done = false;
+
+                @Override
+                public long read(@NotNull Buffer sink, long byteCount) throws IOException {
+                    final long read = super.read(sink, byteCount);
+                    if (read > 0)
+                        total += read;
+                    if (!done && (read == -1 || total == contentLength)) {
+                        done = true;
+                        digestMap.put(url, new Digest(hashingSource.hash().hex(), total));
+                    }
+                    return read;
+                }
+            };
+
+            return response.newBuilder()
+                    .body(ResponseBody.create(Okio.buffer(countingSource), body.contentType(), contentLength))
+                    .build();
+        }
+    }
+}
@@ -42,5 +42,6 @@ public enum EventType {
     /*Misc*/
     LOG,
     BULK_UPDATE_NOTIFY,
+    BULK_UPDATE_PROGRESS,
     NO_ROOT
 }
@@ -0,0 +1,117 @@
+/*
+ * Aurora Droid
+ * Copyright (C) 2019-20, Rahul Kumar Patel <whyorean@gmail.com>
+ *
+ * Aurora Droid is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Aurora Droid is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Aurora Droid.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.aurora.adroid.installer;
+
+import android.content.Context;
+
+import com.aurora.adroid.model.InstallRequest;
+import com.aurora.adroid.task.UpdateOrchestrator;
+import com.aurora.adroid.util.Log;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+//Batches are handed to the installer one at a time: requests arriving close together go out as one batch,
+//which session (API 29+) and root installers turn into a single session or shell.
+//Session commits finish asynchronously, so the system may still be installing a batch when the next one is staged
+public class InstallQueue {
+
+    private static final int MAX_BATCH_SIZE = 10;
+    private static final long BATCH_WINDOW = 1500;
+
+    private static volatile InstallQueue instance;
+
+    private final Context context;
+    private final LinkedBlockingQueue<InstallRequest> requestQueue = new LinkedBlockingQueue<>();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor();
+
+    private InstallQueue(Context context) {
+        this.context = context;
+    }
+
+    public static InstallQueue getInstance(Context context) {
+        if (instance == null) {
+            synchronized (InstallQueue.class) {
+                if (instance == null)
+                    instance = new InstallQueue(context.getApplicationContext());
+            }
+        }
+        return instance;
+    }
+
+    public void enqueue(String packageName, String filePath) {
+        enqueue(packageName, new File(filePath));
+    }
+
+    public void enqueue(String packageName, File file) {
+        requestQueue.offer(new InstallRequest(packageName, file));
+        worker.execute(this::drain);
+    }
+
+    //A failed batch fails as a whole, its packages are retried one by one to get per-package results
+    public void retryEach(List<InstallRequest> requestList) {
+        worker.execute(() -> {
+            final InstallerBase installer = AppInstaller.getInstance(context).getDefaultInstaller();
+            for (InstallRequest installRequest : requestList) {
+                try {
+                    installer.installApk(installRequest.getPackageName(), installRequest.getFile());
+                } catch (Exception e) {
+                    Log.e("Failed to install %s : %s", installRequest.getPackageName(), e.getMessage());
+                }
+            }
+        });
+    }
+
+    private void drain() {
+        final InstallRequest firstRequest = requestQueue.poll();
+        if (firstRequest == null)
+            return;
+
+        //A lone install the user started goes out at once, the window only applies while more are on the way
+        final boolean batching = !requestQueue.isEmpty() || UpdateOrchestrator.getInstance(context).isActive();
+
+        final List<InstallRequest> requestList = new ArrayList<>();
+        requestList.add(firstRequest);
+        try {
+            while (requestList.size() < MAX_BATCH_SIZE) {
+                final InstallRequest installRequest = batching
+                        ? requestQueue.poll(BATCH_WINDOW, TimeUnit.MILLISECONDS)
+                        : requestQueue.poll();
+                if (installRequest == null)
+                    break;
+                if (!requestList.contains(installRequest))
+                    requestList.add(installRequest);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        try {
+            AppInstaller.getInstance(context).getDefaultInstaller().install(requestList);
+        } catch (Exception e) {
+            Log.e("Failed to install batch : %s", e.getMessage());
+        }
+    }
+}
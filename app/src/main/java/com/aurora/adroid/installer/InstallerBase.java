@@ -28,6 +28,9 @@ import android.os.Build;
 import androidx.annotation.NonNull;
 
 import com.aurora.adroid.R;
+import com.aurora.adroid.model.InstallRequest;
+
+import java.util.List;
 
 import io.reactivex.disposables.CompositeDisposable;
 
@@ -68,6 +71,12 @@ public abstract class InstallerBase implements IInstaller {
         }
     }
 
+    //Installers without a batch mode take the packages one after another
+    public void install(@NonNull List<InstallRequest> requestList) {
+        for (InstallRequest installRequest : requestList)
+            installApk(installRequest.getPackageName(), installRequest.getFile());
+    }
+
     @Override
     public void uninstall(@NonNull String packageName) {
         Uri uri = Uri.fromParts("package", packageName, null);
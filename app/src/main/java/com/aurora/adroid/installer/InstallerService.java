@@ -20,6 +20,7 @@
 package com.aurora.adroid.installer;
 
 import android.app.Service;
+import android.content.Context;
 import android.content.Intent;
 import android.content.pm.PackageInstaller;
 import android.os.IBinder;
@@ -29,20 +30,44 @@ import androidx.annotation.Nullable;
 import com.aurora.adroid.AuroraApplication;
 import com.aurora.adroid.event.Event;
 import com.aurora.adroid.event.EventType;
+import com.aurora.adroid.model.InstallRequest;
 
 import org.apache.commons.lang3.StringUtils;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
 public class InstallerService extends Service {
 
+    public static final String EXTRA_PACKAGE_NAMES = "EXTRA_PACKAGE_NAMES";
+    public static final String EXTRA_FILE_PATHS = "EXTRA_FILE_PATHS";
+
     private static final String ACTION_SESSION_INSTALLER = "ACTION_SESSION_INSTALLER";
 
+    public static void sendStatusBroadcast(Context context, int status, String packageName) {
+        if (StringUtils.isNotEmpty(packageName)) {
+            Intent statusIntent = new Intent(ACTION_SESSION_INSTALLER);
+            statusIntent.putExtra(PackageInstaller.EXTRA_STATUS, status);
+            statusIntent.putExtra(PackageInstaller.EXTRA_PACKAGE_NAME, packageName);
+            context.sendBroadcast(statusIntent);
+            AuroraApplication.rxNotify(new Event(EventType.SESSION, packageName, status));
+        }
+    }
+
     @Override
     public int onStartCommand(Intent intent, int flags, int startId) {
         int status = intent.getIntExtra(PackageInstaller.EXTRA_STATUS, -1);
         String packageName = intent.getStringExtra(PackageInstaller.EXTRA_PACKAGE_NAME);
+        String[] packageNames = intent.getStringArrayExtra(EXTRA_PACKAGE_NAMES);
 
-        //Send broadcast for the installation status of the package
-        sendStatusBroadcast(status, packageName);
+        //Multi-package sessions report once for the parent, the packages are carried in our own extras
+        if (packageNames != null) {
+            onBatchStatus(status, packageNames, intent.getStringArrayExtra(EXTRA_FILE_PATHS));
+        } else {
+            //Send broadcast for the installation status of the package
+            sendStatusBroadcast(status, packageName);
+        }
 
         //Launch user confirmation activity
         if (status == PackageInstaller.STATUS_PENDING_USER_ACTION) {
@@ -60,13 +85,28 @@ public class InstallerService extends Service {
     }
 
     private void sendStatusBroadcast(int status, String packageName) {
-        if (StringUtils.isNotEmpty(packageName)) {
-            Intent statusIntent = new Intent(ACTION_SESSION_INSTALLER);
-            statusIntent.putExtra(PackageInstaller.EXTRA_STATUS, status);
-            statusIntent.putExtra(PackageInstaller.EXTRA_PACKAGE_NAME, packageName);
-            sendBroadcast(statusIntent);
-            AuroraApplication.rxNotify(new Event(EventType.SESSION, packageName, status));
+        sendStatusBroadcast(this, status, packageName);
+    }
+
+    private void onBatchStatus(int status, String[] packageNames, String[] filePaths) {
+        final boolean retry = packageNames.length > 1
+                && filePaths != null
+                && filePaths.length == packageNames.length
+                && status != PackageInstaller.STATUS_SUCCESS
+                && status != PackageInstaller.STATUS_PENDING_USER_ACTION
+                && status != PackageInstaller.STATUS_FAILURE_ABORTED;
+
+        //One bad APK fails the whole session, the others deserve their own attempt
+        if (retry) {
+            final List<InstallRequest> requestList = new ArrayList<>();
+            for (int i = 0; i < packageNames.length; i++)
+                requestList.add(new InstallRequest(packageNames[i], new File(filePaths[i])));
+            InstallQueue.getInstance(this).retryEach(requestList);
+            return;
         }
+
+        for (String packageName : packageNames)
+            sendStatusBroadcast(status, packageName);
     }
 
     @Nullable
@@ -20,6 +20,7 @@
 package com.aurora.adroid.installer;
 
 import android.content.Context;
+import android.content.pm.PackageInstaller;
 import android.widget.Toast;
 
 import androidx.annotation.NonNull;
@@ -28,6 +29,7 @@ import com.aurora.adroid.AuroraApplication;
 import com.aurora.adroid.R;
 import com.aurora.adroid.event.Event;
 import com.aurora.adroid.event.EventType;
+import com.aurora.adroid.model.InstallRequest;
 import com.aurora.adroid.util.Log;
 import com.aurora.adroid.util.Util;
 import com.topjohnwu.superuser.Shell;
@@ -35,6 +37,11 @@ import com.topjohnwu.superuser.Shell;
 import org.apache.commons.lang3.StringUtils;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 
 import io.reactivex.Observable;
 import io.reactivex.android.schedulers.AndroidSchedulers;
@@ -42,10 +49,51 @@ import io.reactivex.schedulers.Schedulers;
 
 public class RootInstaller extends InstallerBase {
 
+    //Streams the APK into its own pm session, then prints "<packageName>:ok" or "<packageName>:fail"
+    private static final String SESSION_INSTALL_TEMPLATE = "sid=$(pm install-create -r --user %1$s | grep -o '[0-9]\\+'); "
+            + "if [ -n \"$sid\" ] && cat \"%2$s\" | pm install-write -S %3$d $sid base.apk - && pm install-commit $sid; "
+            + "then echo \"%4$s:ok\"; else [ -n \"$sid\" ] && pm install-abandon $sid; echo \"%4$s:fail\"; fi";
+
     public RootInstaller(Context context) {
         super(context);
     }
 
+    //Whole batch goes through one su shell instead of one shell and one pm process per app
+    @Override
+    public void install(@NonNull List<InstallRequest> requestList) {
+        if (!Shell.getShell().isRoot()) {
+            for (InstallRequest installRequest : requestList)
+                AuroraApplication.rxNotify(new Event(EventType.NO_ROOT, installRequest.getPackageName()));
+            return;
+        }
+
+        final String profile = Util.getInstallationProfile(context);
+        final List<String> commandList = new ArrayList<>();
+        for (InstallRequest installRequest : requestList) {
+            final File file = installRequest.getFile();
+            commandList.add(String.format(Locale.US, SESSION_INSTALL_TEMPLATE,
+                    profile, file.getAbsolutePath(), file.length(), installRequest.getPackageName()));
+        }
+
+        final Set<String> installedSet = new HashSet<>();
+        for (String line : Shell.su(commandList.toArray(new String[0])).exec().getOut()) {
+            if (line.endsWith(":ok"))
+                installedSet.add(line.substring(0, line.length() - 3));
+        }
+
+        for (InstallRequest installRequest : requestList) {
+            final String packageName = installRequest.getPackageName();
+            final boolean success = installedSet.contains(packageName);
+            if (success)
+                Log.i(StringUtils.joinWith(StringUtils.SPACE, context.getString(R.string.string_install_success), packageName));
+            else
+                eLog(packageName, Type.INSTALL);
+            InstallerService.sendStatusBroadcast(context, success
+                    ? PackageInstaller.STATUS_SUCCESS
+                    : PackageInstaller.STATUS_FAILURE, packageName);
+        }
+    }
+
     @Override
     public void installApk(@NonNull String packageName, @NonNull String filePath) {
         if (Shell.getShell().isRoot()) {
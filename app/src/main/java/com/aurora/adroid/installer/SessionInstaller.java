@@ -19,25 +19,31 @@
 
 package com.aurora.adroid.installer;
 
+import android.annotation.TargetApi;
 import android.app.PendingIntent;
-import android.app.admin.DevicePolicyManager;
 import android.content.Context;
 import android.content.Intent;
 import android.content.pm.PackageInstaller;
+import android.os.Build;
 
 import androidx.annotation.NonNull;
 
+import com.aurora.adroid.model.InstallRequest;
 import com.aurora.adroid.util.Log;
 
-import org.apache.commons.io.IOUtils;
-
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.util.List;
 
 public class SessionInstaller extends InstallerBase {
 
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
     public SessionInstaller(Context context) {
         super(context);
     }
@@ -53,19 +59,26 @@ public class SessionInstaller extends InstallerBase {
         xInstall(packageName, fileName);
     }
 
+    @Override
+    public void install(@NonNull List<InstallRequest> requestList) {
+        if (requestList.size() > 1 && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q)
+            xInstallMultiple(requestList);
+        else
+            super.install(requestList);
+    }
+
     private void xInstall(String packageName, File file) {
         final PackageInstaller packageInstaller = context.getPackageManager().getPackageInstaller();
         try {
             final PackageInstaller.SessionParams sessionParams = new PackageInstaller.SessionParams(PackageInstaller.SessionParams.MODE_FULL_INSTALL);
             final int sessionID = packageInstaller.createSession(sessionParams);
             final PackageInstaller.Session session = packageInstaller.openSession(sessionID);
-            final InputStream inputStream = new FileInputStream(file);
-            final OutputStream outputStream = session.openWrite(file.getName(), 0, file.length());
-
-            IOUtils.copy(inputStream, outputStream);
-            session.fsync(outputStream);
-            inputStream.close();
-            outputStream.close();
+            try {
+                writeApk(session, file);
+            } catch (Exception e) {
+                session.abandon();
+                throw e;
+            }
 
             final Intent callbackIntent = new Intent(context, InstallerService.class);
             final PendingIntent pendingIntent = PendingIntent.getService(
@@ -79,4 +92,92 @@ public class SessionInstaller extends InstallerBase {
             Log.e(e.getMessage());
         }
     }
+
+    //One parent session carries every APK, the system verifies and installs them in a single pass
+    @TargetApi(Build.VERSION_CODES.Q)
+    private void xInstallMultiple(List<InstallRequest> requestList) {
+        final PackageInstaller packageInstaller = context.getPackageManager().getPackageInstaller();
+        final String[] packageNames = new String[requestList.size()];
+        final String[] filePaths = new String[requestList.size()];
+        int parentSessionID = -1;
+        try {
+            final PackageInstaller.SessionParams parentParams = new PackageInstaller.SessionParams(PackageInstaller.SessionParams.MODE_FULL_INSTALL);
+            parentParams.setMultiPackage();
+            parentSessionID = packageInstaller.createSession(parentParams);
+            final PackageInstaller.Session parentSession = packageInstaller.openSession(parentSessionID);
+
+            for (int i = 0; i < requestList.size(); i++) {
+                final InstallRequest installRequest = requestList.get(i);
+                final PackageInstaller.SessionParams sessionParams = new PackageInstaller.SessionParams(PackageInstaller.SessionParams.MODE_FULL_INSTALL);
+                sessionParams.setAppPackageName(installRequest.getPackageName());
+                final int sessionID = packageInstaller.createSession(sessionParams);
+                try (PackageInstaller.Session session = packageInstaller.openSession(sessionID)) {
+                    writeApk(session, installRequest.getFile());
+                    parentSession.addChildSessionId(sessionID);
+                } catch (Exception e) {
+                    //Not attached to the parent yet, abandoning the parent would leave it behind
+                    packageInstaller.abandonSession(sessionID);
+                    throw e;
+                }
+
+                packageNames[i] = installRequest.getPackageName();
+                filePaths[i] = installRequest.getFile().getAbsolutePath();
+            }
+
+            final Intent callbackIntent = new Intent(context, InstallerService.class);
+            callbackIntent.putExtra(InstallerService.EXTRA_PACKAGE_NAMES, packageNames);
+            callbackIntent.putExtra(InstallerService.EXTRA_FILE_PATHS, filePaths);
+            final PendingIntent pendingIntent = PendingIntent.getService(
+                    context,
+                    parentSessionID,
+                    callbackIntent,
+                    PendingIntent.FLAG_UPDATE_CURRENT);
+            parentSession.commit(pendingIntent.getIntentSender());
+            parentSession.close();
+        } catch (Exception e) {
+            Log.e("Multi-package session failed : %s", e.getMessage());
+            if (parentSessionID >= 0) {
+                try {
+                    packageInstaller.abandonSession(parentSessionID);
+                } catch (Exception ignored) {
+                }
+            }
+            super.install(requestList);
+        }
+    }
+
+    //Revocable-fd sessions hand out a real FileOutputStream and take a channel transfer, FileBridge pipes get a plain copy
+    private void writeApk(PackageInstaller.Session session, File file) throws IOException {
+        final long length = file.length();
+        try (FileInputStream inputStream = new FileInputStream(file);
+             OutputStream outputStream = session.openWrite(file.getName(), 0, length)) {
+            if (outputStream instanceof FileOutputStream)
+                transferApk(session, inputStream.getChannel(), ((FileOutputStream) outputStream).getChannel(), length);
+            else
+                copyApk(session, inputStream, outputStream, length);
+            session.fsync(outputStream);
+        }
+    }
+
+    private void transferApk(PackageInstaller.Session session, FileChannel source, FileChannel target, long length) throws IOException {
+        long position = 0;
+        while (position < length) {
+            final long transferred = source.transferTo(position, Math.min(BUFFER_SIZE, length - position), target);
+            if (transferred <= 0)
+                throw new IOException("Session stopped accepting data at " + position + " of " + length);
+            position += transferred;
+            session.setStagingProgress((float) position / length);
+        }
+    }
+
+    private void copyApk(PackageInstaller.Session session, InputStream inputStream, OutputStream outputStream, long length) throws IOException {
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        long position = 0;
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, read);
+            position += read;
+            session.setStagingProgress(length > 0 ? (float) position / length : 1f);
+        }
+    }
 }
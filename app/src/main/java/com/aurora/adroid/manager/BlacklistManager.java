@@ -23,62 +23,80 @@ import android.content.Context;
 
 import com.aurora.adroid.Constants;
 import com.aurora.adroid.util.PrefUtil;
+import com.aurora.adroid.util.Util;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.File;
 import java.lang.reflect.Type;
-import java.util.HashSet;
 import java.util.Set;
 
 public class BlacklistManager {
 
-    private Context context;
-    private Gson gson;
+    private static final String FILE_NAME = "blacklist";
+
+    private static volatile PackageStore store;
+
+    private final PackageStore packageStore;
 
     public BlacklistManager(Context context) {
-        this.context = context;
-        this.gson = new Gson();
+        this.packageStore = getStore(context.getApplicationContext());
+    }
+
+    private static PackageStore getStore(Context context) {
+        if (store == null) {
+            synchronized (BlacklistManager.class) {
+                if (store == null) {
+                    final PackageStore packageStore = new PackageStore(new File(context.getFilesDir(), FILE_NAME));
+                    importLegacyBlacklist(context, packageStore);
+                    store = packageStore;
+                }
+            }
+        }
+        return store;
+    }
+
+    //Older versions kept the blacklist as a Gson set inside the default preferences
+    private static void importLegacyBlacklist(Context context, PackageStore packageStore) {
+        final String rawList = PrefUtil.getString(context, Constants.PREFERENCE_BLACKLIST_PACKAGE_LIST);
+        if (StringUtils.isEmpty(rawList))
+            return;
+
+        final Type type = new TypeToken<Set<String>>() {
+        }.getType();
+        final Set<String> stringList = new Gson().fromJson(rawList, type);
+        if (stringList != null) {
+            for (String packageName : stringList)
+                packageStore.put(packageName, null);
+            packageStore.flush();
+        }
+        Util.getPrefs(context).edit().remove(Constants.PREFERENCE_BLACKLIST_PACKAGE_LIST).apply();
     }
 
     public void addToBlacklist(Set<String> packageNames) {
-        Set<String> stringList = getBlacklistedPackages();
-        stringList.addAll(packageNames);
-        saveBlacklist(stringList);
+        for (String packageName : packageNames)
+            packageStore.put(packageName, null);
     }
 
     public void addToBlacklist(String packageName) {
-        Set<String> stringList = getBlacklistedPackages();
-        stringList.add(packageName);
-        saveBlacklist(stringList);
+        packageStore.put(packageName, null);
     }
 
     public void removeFromBlacklist(String packageName) {
-        Set<String> stringList = getBlacklistedPackages();
-        stringList.remove(packageName);
-        saveBlacklist(stringList);
+        packageStore.remove(packageName);
     }
 
     public boolean isBlacklisted(String packageName) {
-        return getBlacklistedPackages().contains(packageName);
+        return packageStore.contains(packageName);
     }
 
     public void clear() {
-        saveBlacklist(new HashSet<>());
-    }
-
-    private void saveBlacklist(Set<String> stringList) {
-        PrefUtil.putString(context, Constants.PREFERENCE_BLACKLIST_PACKAGE_LIST, gson.toJson(stringList));
+        packageStore.clear();
     }
 
     public Set<String> getBlacklistedPackages() {
-        String rawList = PrefUtil.getString(context, Constants.PREFERENCE_BLACKLIST_PACKAGE_LIST);
-        Type type = new TypeToken<Set<String>>() {
-        }.getType();
-        Set<String> stringList = gson.fromJson(rawList, type);
-
-        if (stringList == null)
-            return new HashSet<>();
-        else
-            return stringList;
+        return packageStore.keySet();
     }
 }
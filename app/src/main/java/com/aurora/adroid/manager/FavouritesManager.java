@@ -24,70 +24,92 @@ import android.content.Context;
 import com.aurora.adroid.Constants;
 import com.aurora.adroid.model.App;
 import com.aurora.adroid.util.PrefUtil;
+import com.aurora.adroid.util.Util;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.File;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
+//Only packageName and repoId of a favourite are kept, the rest is read from the database when listed
 public class FavouritesManager {
 
-    private Context context;
-    private Gson gson;
+    private static final String FILE_NAME = "favourites";
+
+    private static volatile PackageStore store;
+
+    private final PackageStore packageStore;
 
     public FavouritesManager(Context context) {
-        this.context = context;
-        this.gson = new Gson();
+        this.packageStore = getStore(context.getApplicationContext());
     }
 
-    public void addToFavourites(App app) {
-        final List<App> stringList = getFavouriteApps();
-        if (!stringList.contains(app)) {
-            stringList.add(app);
-            saveFavourites(stringList);
+    private static PackageStore getStore(Context context) {
+        if (store == null) {
+            synchronized (FavouritesManager.class) {
+                if (store == null) {
+                    final PackageStore packageStore = new PackageStore(new File(context.getFilesDir(), FILE_NAME));
+                    importLegacyFavourites(context, packageStore);
+                    store = packageStore;
+                }
+            }
         }
+        return store;
     }
 
-    public void addToFavourites(List<App> appList) {
-        final List<App> favouriteApps = getFavouriteApps();
-        for (App app : appList) {
-            if (!favouriteApps.contains(app)) {
-                favouriteApps.add(app);
-            }
+    //Older versions kept full serialized apps inside the default preferences
+    private static void importLegacyFavourites(Context context, PackageStore packageStore) {
+        final String rawList = PrefUtil.getString(context, Constants.PREFERENCE_FAVOURITE_APPS);
+        if (StringUtils.isEmpty(rawList))
+            return;
+
+        final Type type = new TypeToken<List<App>>() {
+        }.getType();
+        final List<App> appList = new Gson().fromJson(rawList, type);
+        if (appList != null) {
+            for (App app : appList)
+                packageStore.put(app.getPackageName(), app.getRepoId());
+            packageStore.flush();
         }
-        saveFavourites(favouriteApps);
+        Util.getPrefs(context).edit().remove(Constants.PREFERENCE_FAVOURITE_APPS).apply();
+    }
+
+    public void addToFavourites(App app) {
+        if (!packageStore.contains(app.getPackageName()))
+            packageStore.put(app.getPackageName(), app.getRepoId());
+    }
+
+    public void addToFavourites(List<App> appList) {
+        for (App app : appList)
+            addToFavourites(app);
     }
 
     public void removeFromFavourites(App app) {
-        final List<App> favouriteApps = getFavouriteApps();
-        if (favouriteApps.contains(app)) {
-            favouriteApps.remove(app);
-            saveFavourites(favouriteApps);
-        }
+        packageStore.remove(app.getPackageName());
     }
 
     public boolean isFavourite(App app) {
-        return getFavouriteApps().contains(app);
+        return packageStore.contains(app.getPackageName());
     }
 
     public void clear() {
-        saveFavourites(new ArrayList<>());
-    }
-
-    private void saveFavourites(List<App> appList) {
-        PrefUtil.putString(context, Constants.PREFERENCE_FAVOURITE_APPS, gson.toJson(appList));
+        packageStore.clear();
     }
 
+    //Bare apps carrying packageName and repoId, enough to export or to look the rows up
     public List<App> getFavouriteApps() {
-        String rawList = PrefUtil.getString(context, Constants.PREFERENCE_FAVOURITE_APPS);
-        Type type = new TypeToken<List<App>>() {
-        }.getType();
-        List<App> stringList = gson.fromJson(rawList, type);
-
-        if (stringList == null)
-            return new ArrayList<>();
-        else
-            return stringList;
+        final List<App> appList = new ArrayList<>();
+        for (Map.Entry<String, String> entry : packageStore.entries().entrySet()) {
+            final App app = new App();
+            app.setPackageName(entry.getKey());
+            app.setRepoId(entry.getValue());
+            appList.add(app);
+        }
+        return appList;
     }
 }
@@ -0,0 +1,103 @@
+/*
+ * Aurora Droid
+ * Copyright (C) 2019-20, Rahul Kumar Patel <whyorean@gmail.com>
+ *
+ * Aurora Droid is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Aurora Droid is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Aurora Droid.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.aurora.adroid.manager;
+
+import android.content.Context;
+
+import com.aurora.adroid.Constants;
+import com.aurora.adroid.util.Log;
+import com.aurora.adroid.util.PathUtil;
+
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+public class IndexCache {
+
+    private static final long MAX_CACHE_SIZE = 48 * FileUtils.ONE_MB;
+
+    private final File cacheDir;
+
+    public IndexCache(Context context) {
+        this.cacheDir = new File(PathUtil.getIndexCacheDirectory(context));
+    }
+
+    public File get(String repoId) {
+        final File file = getFile(repoId);
+        return file.exists() ? file : null;
+    }
+
+    //Keeps the last verified index of a repo, the oldest ones are evicted once the cache grows too big
+    public synchronized void put(String repoId, File file) {
+        final File cachedFile = getFile(repoId);
+        try {
+            FileUtils.deleteQuietly(cachedFile);
+            FileUtils.moveFile(file, cachedFile);
+            cachedFile.setLastModified(System.currentTimeMillis());
+            trim(cachedFile);
+        } catch (IOException e) {
+            Log.e("Failed to cache index of %s : %s", repoId, e.getMessage());
+        }
+    }
+
+    //Copies the cached index back to the repo directory, so that it can be synced without a download
+    public synchronized boolean restore(Context context, String repoId) {
+        final File cachedFile = get(repoId);
+        if (cachedFile == null)
+            return false;
+        try {
+            FileUtils.copyFile(cachedFile, new File(PathUtil.getRepoDirectory(context) + repoId + "." + Constants.JAR));
+            return true;
+        } catch (IOException e) {
+            Log.e("Failed to restore index of %s : %s", repoId, e.getMessage());
+            return false;
+        }
+    }
+
+    public synchronized void remove(String repoId) {
+        FileUtils.deleteQuietly(getFile(repoId));
+    }
+
+    private void trim(File keep) {
+        final File[] files = cacheDir.listFiles();
+        if (files == null)
+            return;
+
+        long size = 0;
+        for (File file : files)
+            size += file.length();
+
+        Arrays.sort(files, (file1, file2) -> Long.compare(file1.lastModified(), file2.lastModified()));
+        for (File file : files) {
+            if (size <= MAX_CACHE_SIZE)
+                break;
+            if (file.equals(keep))
+                continue;
+            size -= file.length();
+            FileUtils.deleteQuietly(file);
+        }
+    }
+
+    private File getFile(String repoId) {
+        return new File(cacheDir, repoId + "." + Constants.JAR);
+    }
+}
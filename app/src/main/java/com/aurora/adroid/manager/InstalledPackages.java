@@ -0,0 +1,118 @@
+/*
+ * Aurora Droid
+ * Copyright (C) 2019-20, Rahul Kumar Patel <whyorean@gmail.com>
+ *
+ * Aurora Droid is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Aurora Droid is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Aurora Droid.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.aurora.adroid.manager;
+
+import android.content.Context;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+
+import com.jakewharton.rxrelay2.BehaviorRelay;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import io.reactivex.Observable;
+import io.reactivex.schedulers.Schedulers;
+
+//Process-wide snapshot of installed packages, read once and patched from package broadcasts
+public class InstalledPackages {
+
+    private static volatile InstalledPackages instance;
+
+    private final Context context;
+    private final BehaviorRelay<Map<String, PackageInfo>> relay = BehaviorRelay.create();
+
+    private volatile Map<String, PackageInfo> snapshot;
+
+    private InstalledPackages(Context context) {
+        this.context = context;
+    }
+
+    public static InstalledPackages getInstance(Context context) {
+        if (instance == null) {
+            synchronized (InstalledPackages.class) {
+                if (instance == null)
+                    instance = new InstalledPackages(context.getApplicationContext());
+            }
+        }
+        return instance;
+    }
+
+    //Unmodifiable, a new map is published on every change so readers never need to copy
+    public Map<String, PackageInfo> getSnapshot() {
+        Map<String, PackageInfo> packageInfoMap = snapshot;
+        if (packageInfoMap == null) {
+            synchronized (this) {
+                if (snapshot == null)
+                    publish(load());
+                packageInfoMap = snapshot;
+            }
+        }
+        return packageInfoMap;
+    }
+
+    //Emits the current snapshot, then one per package change, always on an io thread as broadcasts arrive on main
+    public Observable<Map<String, PackageInfo>> observe() {
+        return Observable.fromCallable(this::getSnapshot)
+                .subscribeOn(Schedulers.io())
+                .flatMap(packageInfoMap -> relay)
+                .observeOn(Schedulers.io());
+    }
+
+    public void onPackageChanged(String packageName) {
+        synchronized (this) {
+            if (snapshot == null)
+                return;
+            final Map<String, PackageInfo> packageInfoMap = new HashMap<>(snapshot);
+            try {
+                packageInfoMap.put(packageName, context.getPackageManager().getPackageInfo(packageName, 0));
+            } catch (PackageManager.NameNotFoundException e) {
+                packageInfoMap.remove(packageName);
+            }
+            publish(packageInfoMap);
+        }
+    }
+
+    public void onPackageRemoved(String packageName) {
+        synchronized (this) {
+            if (snapshot == null || !snapshot.containsKey(packageName))
+                return;
+            final Map<String, PackageInfo> packageInfoMap = new HashMap<>(snapshot);
+            packageInfoMap.remove(packageName);
+            publish(packageInfoMap);
+        }
+    }
+
+    //No flags: meta-data and signatures bloat the binder reply and nothing here needs them
+    private Map<String, PackageInfo> load() {
+        final Map<String, PackageInfo> packageInfoMap = new HashMap<>();
+        for (PackageInfo packageInfo : context.getPackageManager().getInstalledPackages(0)) {
+            if (packageInfo.packageName != null && packageInfo.applicationInfo != null)
+                packageInfoMap.put(packageInfo.packageName, packageInfo);
+        }
+        return packageInfoMap;
+    }
+
+    private void publish(Map<String, PackageInfo> packageInfoMap) {
+        snapshot = Collections.unmodifiableMap(packageInfoMap);
+        relay.accept(snapshot);
+    }
+}
@@ -22,8 +22,10 @@ package com.aurora.adroid.manager;
 import android.content.Context;
 import android.content.res.Configuration;
 import android.content.res.Resources;
+import android.os.AsyncTask;
 
 import com.aurora.adroid.Constants;
+import com.aurora.adroid.task.DatabaseTask;
 import com.aurora.adroid.util.PrefUtil;
 import com.aurora.adroid.util.Util;
 
@@ -57,6 +59,13 @@ public class LocaleManager {
         if (isCustom)
             saveLocale(locale);
         updateResources(locale);
+        refreshDisplayFields();
+    }
+
+    public void refreshDisplayFields() {
+        final Context appContext = context.getApplicationContext();
+        final Locale locale = getLocale();
+        AsyncTask.execute(() -> DatabaseTask.refreshDisplayFields(appContext, locale));
     }
 
     private void saveLocale(Locale locale) {
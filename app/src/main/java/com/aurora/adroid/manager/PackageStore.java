@@ -0,0 +1,150 @@
+/*
+ * Aurora Droid
+ * Copyright (C) 2019-20, Rahul Kumar Patel <whyorean@gmail.com>
+ *
+ * Aurora Droid is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Aurora Droid is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Aurora Droid.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.aurora.adroid.manager;
+
+import android.util.AtomicFile;
+
+import com.aurora.adroid.util.Log;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+//Package names (with an optional value) held in memory, persisted one per line behind the caller's back
+class PackageStore {
+
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor();
+    private static final char SEPARATOR = '\t';
+
+    private final AtomicFile file;
+    private final Map<String, String> entryMap = new LinkedHashMap<>();
+    private final AtomicBoolean writePending = new AtomicBoolean(false);
+
+    PackageStore(File file) {
+        this.file = new AtomicFile(file);
+        load();
+    }
+
+    synchronized boolean contains(String packageName) {
+        return entryMap.containsKey(packageName);
+    }
+
+    synchronized Set<String> keySet() {
+        return new LinkedHashSet<>(entryMap.keySet());
+    }
+
+    synchronized Map<String, String> entries() {
+        return new LinkedHashMap<>(entryMap);
+    }
+
+    synchronized void put(String packageName, String value) {
+        final String previous = entryMap.put(packageName, value == null ? "" : value);
+        if (previous == null || !previous.equals(entryMap.get(packageName)))
+            schedule();
+    }
+
+    synchronized void remove(String packageName) {
+        if (entryMap.remove(packageName) != null)
+            schedule();
+    }
+
+    synchronized void clear() {
+        if (!entryMap.isEmpty()) {
+            entryMap.clear();
+            schedule();
+        }
+    }
+
+    //Writes now, for callers that must not lose the data to a process kill (e.g. legacy import)
+    void flush() {
+        writePending.set(true);
+        write();
+    }
+
+    //Bursts of changes collapse into a single write of the latest state
+    private void schedule() {
+        if (writePending.compareAndSet(false, true))
+            WRITER.execute(this::write);
+    }
+
+    private void write() {
+        if (!writePending.getAndSet(false))
+            return;
+
+        final List<Map.Entry<String, String>> entryList;
+        synchronized (this) {
+            entryList = new ArrayList<>(entryMap.entrySet());
+        }
+
+        final StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, String> entry : entryList) {
+            builder.append(entry.getKey());
+            if (!entry.getValue().isEmpty())
+                builder.append(SEPARATOR).append(entry.getValue());
+            builder.append('\n');
+        }
+
+        synchronized (file) {
+            FileOutputStream outputStream = null;
+            try {
+                outputStream = file.startWrite();
+                outputStream.write(builder.toString().getBytes(StandardCharsets.UTF_8));
+                file.finishWrite(outputStream);
+            } catch (IOException e) {
+                if (outputStream != null)
+                    file.failWrite(outputStream);
+                Log.e("Failed to write %s : %s", file.getBaseFile().getName(), e.getMessage());
+            }
+        }
+    }
+
+    private void load() {
+        try (FileInputStream inputStream = file.openRead();
+             BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty())
+                    continue;
+                final int index = line.indexOf(SEPARATOR);
+                if (index < 0)
+                    entryMap.put(line, "");
+                else
+                    entryMap.put(line.substring(0, index), line.substring(index + 1));
+            }
+        } catch (FileNotFoundException ignored) {
+        } catch (IOException e) {
+            Log.e("Failed to read %s : %s", file.getBaseFile().getName(), e.getMessage());
+        }
+    }
+}
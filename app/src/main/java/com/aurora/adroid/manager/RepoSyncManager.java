@@ -20,6 +20,7 @@
 package com.aurora.adroid.manager;
 
 import android.content.Context;
+import android.content.SharedPreferences;
 
 import com.aurora.adroid.Constants;
 import com.aurora.adroid.model.StaticRepo;
@@ -27,6 +28,7 @@ import com.aurora.adroid.model.RepoHeader;
 import com.aurora.adroid.task.DatabaseTask;
 import com.aurora.adroid.util.Log;
 import com.aurora.adroid.util.PrefUtil;
+import com.aurora.adroid.util.Util;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 
@@ -36,18 +38,34 @@ import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
+//Process-wide, maps live in memory and changes are persisted in one coalesced write off the caller's thread
 public class RepoSyncManager {
 
+    private static final int DIRTY_REPO_MAP = 1;
+    private static final int DIRTY_SYNC_MAP = 1 << 1;
+    private static final int DIRTY_HEADER_MAP = 1 << 2;
+
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor();
+
+    private static volatile RepoSyncManager instance;
+
     private final HashMap<String, StaticRepo> repoHashMap = new HashMap<>();
     private final HashMap<String, StaticRepo> syncHashMap = new HashMap<>();
     private final HashMap<String, RepoHeader> headerHashMap = new HashMap<>();
+    private final HashMap<String, RepoHeader> pendingHeaderMap = new HashMap<>();
+    private final AtomicInteger dirtyFlags = new AtomicInteger(0);
 
     private Context context;
     private Gson gson;
 
-    public RepoSyncManager(Context context) {
+    private RepoSyncManager(Context context) {
         this.context = context;
         this.gson = new Gson();
         this.repoHashMap.putAll(getRepoHashMap());
@@ -55,10 +73,21 @@ public class RepoSyncManager {
         this.headerHashMap.putAll(getHeaderHashMap());
     }
 
+    public static RepoSyncManager getInstance(Context context) {
+        if (instance == null) {
+            synchronized (RepoSyncManager.class) {
+                if (instance == null)
+                    instance = new RepoSyncManager(context.getApplicationContext());
+            }
+        }
+        return instance;
+    }
+
     public void addToRepoMap(StaticRepo staticRepo) {
         synchronized (repoHashMap) {
             if (!repoHashMap.containsKey(staticRepo.getRepoId())) {
                 repoHashMap.put(staticRepo.getRepoId(), staticRepo);
+                markDirty(DIRTY_REPO_MAP);
             }
         }
     }
@@ -66,10 +95,8 @@ public class RepoSyncManager {
     public void addDefault() {
         synchronized (repoHashMap) {
             final StaticRepo staticRepo = getDefaultFromAssets();
-            if (staticRepo != null && !repoHashMap.containsKey(staticRepo.getRepoId())) {
-                repoHashMap.put(staticRepo.getRepoId(), staticRepo);
-                saveRepoMap();
-            }
+            if (staticRepo != null)
+                addToRepoMap(staticRepo);
         }
     }
 
@@ -77,17 +104,42 @@ public class RepoSyncManager {
         synchronized (syncHashMap) {
             if (!syncHashMap.containsKey(staticRepo.getRepoId())) {
                 syncHashMap.put(staticRepo.getRepoId(), staticRepo);
+                markDirty(DIRTY_SYNC_MAP);
             }
-            saveSyncMap();
         }
     }
 
+    //Validators of a known repo change on every check, so the header is always replaced
     public void addToHeaderMap(RepoHeader repoHeader) {
         synchronized (headerHashMap) {
-            if (!headerHashMap.containsKey(repoHeader.getRepoId())) {
-                headerHashMap.put(repoHeader.getRepoId(), repoHeader);
+            headerHashMap.put(repoHeader.getRepoId(), copyOf(repoHeader));
+            markDirty(DIRTY_HEADER_MAP);
+        }
+    }
+
+    //Validators of a changed index are kept in memory until its sync is committed
+    public void stageHeader(RepoHeader repoHeader) {
+        synchronized (pendingHeaderMap) {
+            pendingHeaderMap.put(repoHeader.getRepoId(), copyOf(repoHeader));
+        }
+    }
+
+    public void commitHeader(String repoId) {
+        final RepoHeader repoHeader;
+        synchronized (pendingHeaderMap) {
+            repoHeader = pendingHeaderMap.remove(repoId);
+        }
+        if (repoHeader != null) {
+            synchronized (headerHashMap) {
+                headerHashMap.put(repoId, repoHeader);
+                markDirty(DIRTY_HEADER_MAP);
             }
-            saveRepoHeaderMap();
+        }
+    }
+
+    public void discardHeader(String repoId) {
+        synchronized (pendingHeaderMap) {
+            pendingHeaderMap.remove(repoId);
         }
     }
 
@@ -96,7 +148,6 @@ public class RepoSyncManager {
             for (StaticRepo staticRepo : staticRepoList) {
                 addToRepoMap(staticRepo);
             }
-            saveRepoMap();
         }
     }
 
@@ -112,9 +163,13 @@ public class RepoSyncManager {
         }
     }
 
+    //Copies, callers can not change what is persisted behind the manager's back
     public List<RepoHeader> getHeaderList() {
         synchronized (headerHashMap) {
-            return new ArrayList<>(headerHashMap.values());
+            final List<RepoHeader> headerList = new ArrayList<>();
+            for (RepoHeader repoHeader : headerHashMap.values())
+                headerList.add(copyOf(repoHeader));
+            return headerList;
         }
     }
 
@@ -129,42 +184,53 @@ public class RepoSyncManager {
         synchronized (syncHashMap) {
             final List<StaticRepo> syncedList = getSyncList();
             final DatabaseTask databaseTask = new DatabaseTask(context);
+            final IndexCache indexCache = new IndexCache(context);
             for (StaticRepo staticRepo : syncedList) {
                 if (!staticRepoList.contains(staticRepo)) {
                     syncHashMap.remove(staticRepo.getRepoId());
                     databaseTask.clearRepo(staticRepo);
+                    indexCache.remove(staticRepo.getRepoId());
+                    markDirty(DIRTY_SYNC_MAP);
                 }
             }
-            saveSyncMap();
         }
     }
 
     public void updateHeaderMap(List<StaticRepo> staticRepoList) {
         synchronized (headerHashMap) {
-            final List<String> repoIdList = new ArrayList<>();
+            final Set<String> repoIdSet = new HashSet<>();
             final List<RepoHeader> syncedList = getHeaderList();
 
             for (StaticRepo staticRepo : staticRepoList)
-                repoIdList.add(staticRepo.getRepoId());
+                repoIdSet.add(staticRepo.getRepoId());
 
             for (RepoHeader repoHeader : syncedList) {
-                if (!repoIdList.contains(repoHeader.getRepoId())) {
+                if (!repoIdSet.contains(repoHeader.getRepoId())) {
                     headerHashMap.remove(repoHeader.getRepoId());
+                    markDirty(DIRTY_HEADER_MAP);
                 }
             }
-            saveRepoHeaderMap();
         }
     }
 
     public void removeFromRepoMap(StaticRepo staticRepo) {
         synchronized (repoHashMap) {
-            repoHashMap.remove(staticRepo.getRepoId());
+            if (repoHashMap.remove(staticRepo.getRepoId()) != null)
+                markDirty(DIRTY_REPO_MAP);
         }
     }
 
     public void removeFromSyncMap(StaticRepo staticRepo) {
         synchronized (syncHashMap) {
-            syncHashMap.remove(staticRepo.getRepoId());
+            if (syncHashMap.remove(staticRepo.getRepoId()) != null)
+                markDirty(DIRTY_SYNC_MAP);
+        }
+    }
+
+    public void clearSyncMap() {
+        synchronized (syncHashMap) {
+            syncHashMap.clear();
+            markDirty(DIRTY_SYNC_MAP);
         }
     }
 
@@ -183,26 +249,58 @@ public class RepoSyncManager {
     public void clear() {
         synchronized (repoHashMap) {
             repoHashMap.clear();
-            saveRepoMap();
+            markDirty(DIRTY_REPO_MAP);
         }
     }
 
-    private void saveRepoMap() {
-        synchronized (repoHashMap) {
-            PrefUtil.putString(context, Constants.PREFERENCE_REPO_MAP, gson.toJson(repoHashMap));
-        }
+    //Only the first change after a flush queues one, later ones ride along with it
+    private void markDirty(int flag) {
+        int previousFlags;
+        do {
+            previousFlags = dirtyFlags.get();
+        } while (!dirtyFlags.compareAndSet(previousFlags, previousFlags | flag));
+        if (previousFlags == 0)
+            WRITER.execute(this::flush);
     }
 
-    private void saveSyncMap() {
-        synchronized (syncHashMap) {
-            PrefUtil.putString(context, Constants.PREFERENCE_SYNC_MAP, gson.toJson(syncHashMap));
+    private void flush() {
+        final int flags = dirtyFlags.getAndSet(0);
+        final SharedPreferences.Editor editor = Util.getPrefs(context).edit();
+
+        if ((flags & DIRTY_REPO_MAP) != 0) {
+            final HashMap<String, StaticRepo> hashMap;
+            synchronized (repoHashMap) {
+                hashMap = new HashMap<>(repoHashMap);
+            }
+            editor.putString(Constants.PREFERENCE_REPO_MAP, gson.toJson(hashMap));
         }
-    }
 
-    private void saveRepoHeaderMap() {
-        synchronized (headerHashMap) {
-            PrefUtil.putString(context, Constants.PREFERENCE_REPO_HEADER_MAP, gson.toJson(headerHashMap));
+        if ((flags & DIRTY_SYNC_MAP) != 0) {
+            final HashMap<String, StaticRepo> hashMap;
+            synchronized (syncHashMap) {
+                hashMap = new HashMap<>(syncHashMap);
+            }
+            editor.putString(Constants.PREFERENCE_SYNC_MAP, gson.toJson(hashMap));
         }
+
+        if ((flags & DIRTY_HEADER_MAP) != 0) {
+            final HashMap<String, RepoHeader> hashMap;
+            synchronized (headerHashMap) {
+                hashMap = new HashMap<>(headerHashMap);
+            }
+            editor.putString(Constants.PREFERENCE_REPO_HEADER_MAP, gson.toJson(hashMap));
+        }
+
+        editor.apply();
+    }
+
+    private static RepoHeader copyOf(RepoHeader repoHeader) {
+        final RepoHeader copy = new RepoHeader();
+        copy.setRepoId(repoHeader.getRepoId());
+        copy.setEtag(repoHeader.getEtag());
+        copy.setLastModified(repoHeader.getLastModified());
+        copy.setUrl(repoHeader.getUrl());
+        return copy;
     }
 
     private HashMap<String, StaticRepo> getRepoHashMap() {
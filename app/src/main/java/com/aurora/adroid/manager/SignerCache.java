@@ -0,0 +1,72 @@
+/*
+ * Aurora Droid
+ * Copyright (C) 2019-20, Rahul Kumar Patel <whyorean@gmail.com>
+ *
+ * Aurora Droid is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Aurora Droid is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Aurora Droid.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.aurora.adroid.manager;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.content.pm.PackageInfo;
+
+//Signer fingerprints of installed apps, an entry is valid only for the install it was read from
+public class SignerCache {
+
+    private static final String PREFERENCE_FILE = "signer_cache";
+    private static final String SEPARATOR = "|";
+
+    private static volatile SignerCache instance;
+
+    private final SharedPreferences preferences;
+
+    private SignerCache(Context context) {
+        this.preferences = context.getSharedPreferences(PREFERENCE_FILE, Context.MODE_PRIVATE);
+    }
+
+    public static SignerCache getInstance(Context context) {
+        if (instance == null) {
+            synchronized (SignerCache.class) {
+                if (instance == null)
+                    instance = new SignerCache(context.getApplicationContext());
+            }
+        }
+        return instance;
+    }
+
+    public String get(PackageInfo packageInfo) {
+        final String value = preferences.getString(packageInfo.packageName, null);
+        if (value == null)
+            return null;
+
+        final String stamp = getStamp(packageInfo);
+        if (value.length() <= stamp.length() || !value.startsWith(stamp))
+            return null;
+        return value.substring(stamp.length());
+    }
+
+    public void put(PackageInfo packageInfo, String fingerprint) {
+        preferences.edit().putString(packageInfo.packageName, getStamp(packageInfo) + fingerprint).apply();
+    }
+
+    public void remove(String packageName) {
+        preferences.edit().remove(packageName).apply();
+    }
+
+    private static String getStamp(PackageInfo packageInfo) {
+        return packageInfo.lastUpdateTime + SEPARATOR + packageInfo.versionCode + SEPARATOR;
+    }
+}
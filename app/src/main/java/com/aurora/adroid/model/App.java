@@ -23,8 +23,10 @@ import android.content.pm.PackageInfo;
 import android.graphics.drawable.Drawable;
 
 import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.Ignore;
+import androidx.room.Index;
 import androidx.room.TypeConverters;
 
 import com.aurora.adroid.database.DatabaseConverter;
@@ -44,7 +46,14 @@ import lombok.Data;
 
 @Data
 
-@Entity(tableName = "app", primaryKeys = {"repoId", "packageName"})
+@Entity(tableName = "app",
+        primaryKeys = {"repoId", "packageName"},
+        indices = {
+                @Index("packageName"),
+                @Index("lastUpdated"),
+                @Index("added"),
+                @Index("authorName")
+        })
 @TypeConverters(DatabaseConverter.class)
 public class App {
     @NotNull
@@ -53,6 +62,7 @@ public class App {
     private String packageName = StringUtils.EMPTY;
 
     private Long added;
+    @ColumnInfo(collate = ColumnInfo.NOCASE)
     private String authorName = "unknown";
     private String authorEmail = "unknown";
     private String bitcoin;
@@ -72,12 +82,19 @@ public class App {
     private String repoUrl = "https://f-droid.org/repo";
     private String webSite;
     private Package pkg;
+    //Newest package this device can run, 0 when there is none
+    private long compatibleVersionCode;
 
     @SerializedName("localized")
     @Expose
     private HashMap<String, Localization> localizationMap;
     private List<String> antiFeatures;
 
+    //Resolved for the current locale at ingestion, see LocalizationUtil.resolveDisplayFields()
+    private String displayName;
+    private String displaySummary;
+    private String displayIcon;
+
     @Ignore
     private transient boolean installed;
     @Ignore
@@ -42,6 +42,7 @@ public class Package {
     private String hash;
     private String hashType;
     private String minSdkVersion;
+    private String maxSdkVersion;
     private List<String> nativecode;
     private String packageName;
     private String sig;
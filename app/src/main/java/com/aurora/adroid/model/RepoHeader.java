@@ -32,6 +32,9 @@ public class RepoHeader implements Comparable<RepoHeader> {
     @NotNull
     private String repoId = "00";
     private Long lastModified;
+    private String etag;
+    //Index url the validators came from, ETags are only meaningful on the same mirror
+    private String url;
 
     @Override
     public boolean equals(Object obj) {
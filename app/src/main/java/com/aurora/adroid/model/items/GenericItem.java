@@ -30,6 +30,7 @@ import androidx.appcompat.widget.AppCompatImageView;
 import androidx.appcompat.widget.AppCompatTextView;
 import androidx.core.graphics.drawable.RoundedBitmapDrawable;
 import androidx.core.graphics.drawable.RoundedBitmapDrawableFactory;
+import androidx.recyclerview.widget.DiffUtil;
 
 import com.aurora.adroid.GlideApp;
 import com.aurora.adroid.R;
@@ -50,6 +51,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
+import java.util.Objects;
 
 import butterknife.BindView;
 import butterknife.ButterKnife;
@@ -60,6 +62,19 @@ import lombok.Setter;
 @Setter
 public class GenericItem extends AbstractItem<GenericItem.ViewHolder> {
 
+    public static final DiffUtil.ItemCallback<App> DIFF_CALLBACK = new DiffUtil.ItemCallback<App>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull App oldApp, @NonNull App newApp) {
+            return StringUtils.equals(oldApp.getRepoId(), newApp.getRepoId())
+                    && StringUtils.equals(oldApp.getPackageName(), newApp.getPackageName());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull App oldApp, @NonNull App newApp) {
+            return Objects.equals(oldApp.getLastUpdated(), newApp.getLastUpdated());
+        }
+    };
+
     private App app;
     private String packageName;
 
@@ -113,7 +128,7 @@ public class GenericItem extends AbstractItem<GenericItem.ViewHolder> {
             final String summary = LocalizationUtil.getLocalizedSummary(context, app);
             line3.setText(StringUtils.capitalize(summary));
 
-            if (app.getIcon() == null)
+            if (app.getIcon() == null && app.getDisplayIcon() == null)
                 img.setImageDrawable(context.getResources().getDrawable(R.drawable.ic_placeholder));
             else
                 GlideApp
@@ -0,0 +1,49 @@
+/*
+ * Aurora Droid
+ * Copyright (C) 2019-20, Rahul Kumar Patel <whyorean@gmail.com>
+ *
+ * Aurora Droid is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Aurora Droid is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Aurora Droid.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.aurora.adroid.model.v2;
+
+import androidx.room.Entity;
+import androidx.room.TypeConverters;
+
+import com.aurora.adroid.database.DatabaseConverter;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+//Heavy parts of an app only the details screen needs, list rows keep a stripped localizationMap
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity(tableName = "app_detail", primaryKeys = {"repoId", "packageName"})
+@TypeConverters(DatabaseConverter.class)
+public class AppDetail {
+    @NotNull
+    private String repoId = StringUtils.EMPTY;
+    @NotNull
+    private String packageName = StringUtils.EMPTY;
+    private String description;
+    private HashMap<String, Localization> localizationMap;
+}
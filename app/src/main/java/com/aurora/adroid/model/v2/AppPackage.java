@@ -43,4 +43,6 @@ public class AppPackage {
     @NotNull
     private String packageName = StringUtils.EMPTY;
     private List<Package> packageList;
+    //PackageUtil.getPackageFingerprint() of packageList, 0 for rows written before it existed
+    private long fingerprint;
 }
@@ -19,25 +19,23 @@
 
 package com.aurora.adroid.model.v2;
 
-import com.aurora.adroid.model.App;
-import com.aurora.adroid.model.Package;
-import com.google.gson.annotations.Expose;
-import com.google.gson.annotations.SerializedName;
+import androidx.room.Entity;
 
-import java.util.HashMap;
-import java.util.List;
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
+//Apps written by a repo sync that has not committed yet
 @Data
-public class Index {
-    @SerializedName("repo")
-    @Expose
-    public Repo repo;
-    @SerializedName("apps")
-    @Expose
-    public List<App> apps = null;
-    @SerializedName("packages")
-    @Expose
-    public HashMap<String, List<Package>> packages;
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity(tableName = "app_pending", primaryKeys = {"repoId", "packageName"})
+public class AppPending {
+    @NotNull
+    private String repoId = StringUtils.EMPTY;
+    @NotNull
+    private String packageName = StringUtils.EMPTY;
 }
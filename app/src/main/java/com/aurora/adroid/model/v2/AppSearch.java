@@ -0,0 +1,53 @@
+/*
+ * Aurora Droid
+ * Copyright (C) 2019-20, Rahul Kumar Patel <whyorean@gmail.com>
+ *
+ * Aurora Droid is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Aurora Droid is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Aurora Droid.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.aurora.adroid.model.v2;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.PrimaryKey;
+
+import lombok.Data;
+
+@Data
+@Fts4(notIndexed = {"repoId"})
+@Entity(tableName = "app_fts")
+public class AppSearch {
+    @PrimaryKey
+    @ColumnInfo(name = "rowid")
+    private long rowId;
+    private String repoId;
+    private String packageName;
+    private String name;
+    private String summary;
+    private String description;
+    private String authorName;
+
+    //Stable docid per app, lets the FTS rows be replaced by rowid instead of scanning the table
+    public static long getRowId(String repoId, String packageName) {
+        long hash = 0xcbf29ce484222325L;
+        final String key = repoId + '/' + packageName;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
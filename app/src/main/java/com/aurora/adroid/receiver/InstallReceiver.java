@@ -25,7 +25,7 @@ import android.content.Intent;
 import android.os.Bundle;
 
 import com.aurora.adroid.Constants;
-import com.aurora.adroid.installer.AppInstaller;
+import com.aurora.adroid.installer.InstallQueue;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -37,9 +37,7 @@ public class InstallReceiver extends BroadcastReceiver {
             final String packageName = extras.getString(Constants.INTENT_PACKAGE_NAME, "");
             final String fileUri = extras.getString(Constants.STRING_EXTRA, "");
             if (StringUtils.isNotEmpty(packageName) && StringUtils.isNotEmpty(fileUri)) {
-                AppInstaller.getInstance(context)
-                        .getDefaultInstaller()
-                        .installApk(packageName, fileUri);
+                InstallQueue.getInstance(context).enqueue(packageName, fileUri);
             }
         }
     }
@@ -8,6 +8,8 @@ import android.content.Intent;
 import com.aurora.adroid.AuroraApplication;
 import com.aurora.adroid.event.Event;
 import com.aurora.adroid.event.EventType;
+import com.aurora.adroid.manager.InstalledPackages;
+import com.aurora.adroid.manager.SignerCache;
 import com.aurora.adroid.util.PathUtil;
 import com.aurora.adroid.util.Util;
 
@@ -22,12 +24,20 @@ public class PackageManagerReceiver extends BroadcastReceiver {
             if (action != null && intent.getData() != null) {
                 String packageName = intent.getData().getEncodedSchemeSpecificPart();
                 switch (action) {
+                    case Intent.ACTION_PACKAGE_CHANGED:
+                        //Enabled state or components changed, the install itself is the same
+                        InstalledPackages.getInstance(context).onPackageChanged(packageName);
+                        return;
                     case Intent.ACTION_PACKAGE_ADDED:
+                        SignerCache.getInstance(context).remove(packageName);
+                        InstalledPackages.getInstance(context).onPackageChanged(packageName);
                         AuroraApplication.rxNotify(new Event(EventType.INSTALLED, packageName));
                         if (Util.shouldDeleteApk(context))
                             delete(context, packageName);
                         break;
                     case Intent.ACTION_PACKAGE_REMOVED:
+                        SignerCache.getInstance(context).remove(packageName);
+                        InstalledPackages.getInstance(context).onPackageRemoved(packageName);
                         AuroraApplication.rxNotify(new Event(EventType.UNINSTALLED, packageName));
                         break;
                 }
@@ -29,14 +29,11 @@ import com.aurora.adroid.AuroraApplication;
 import com.aurora.adroid.event.Event;
 import com.aurora.adroid.event.EventType;
 import com.aurora.adroid.model.App;
-import com.aurora.adroid.task.LiveUpdate;
+import com.aurora.adroid.task.UpdateOrchestrator;
 
 import java.util.ArrayList;
 import java.util.List;
 
-import io.reactivex.Observable;
-import io.reactivex.schedulers.Schedulers;
-
 public class BulkUpdateService extends Service {
 
     public static BulkUpdateService instance = null;
@@ -78,16 +75,16 @@ public class BulkUpdateService extends Service {
     private void updateAllApps() {
         AuroraApplication.setBulkUpdateAlive(true);
         AuroraApplication.rxNotify(new Event(EventType.BULK_UPDATE_NOTIFY));
-        Observable.fromIterable(appList)
-                .subscribeOn(Schedulers.io())
-                .doOnNext(app -> new LiveUpdate(this, app).enqueueUpdate())
-                .doOnComplete(() -> {
-                })
-                .subscribe();
+        final UpdateOrchestrator updateOrchestrator = UpdateOrchestrator.getInstance(this);
+        updateOrchestrator.setIdleCallback(this::stopSelf);
+        updateOrchestrator.enqueue(new ArrayList<>(appList));
     }
 
     @Override
     public void onDestroy() {
+        final UpdateOrchestrator updateOrchestrator = UpdateOrchestrator.getInstance(this);
+        updateOrchestrator.setIdleCallback(null);
+        updateOrchestrator.cancelAll();
         AuroraApplication.setBulkUpdateAlive(false);
         AuroraApplication.rxNotify(new Event(EventType.BULK_UPDATE_NOTIFY));
         instance = null;
@@ -36,16 +36,17 @@ import com.aurora.adroid.download.DownloadManager;
 import com.aurora.adroid.event.Event;
 import com.aurora.adroid.event.EventType;
 import com.aurora.adroid.event.LogEvent;
+import com.aurora.adroid.manager.IndexCache;
 import com.aurora.adroid.manager.RepoListManager;
 import com.aurora.adroid.manager.RepoSyncManager;
 import com.aurora.adroid.model.StaticRepo;
 import com.aurora.adroid.task.CheckRepoUpdatesTask;
-import com.aurora.adroid.task.ExtractRepoTask;
 import com.aurora.adroid.task.JsonParserTask;
 import com.aurora.adroid.ui.main.AuroraActivity;
 import com.aurora.adroid.util.DatabaseUtil;
 import com.aurora.adroid.util.Log;
 import com.aurora.adroid.util.PathUtil;
+import com.aurora.adroid.util.Util;
 import com.tonyodev.fetch2.AbstractFetchGroupListener;
 import com.tonyodev.fetch2.Download;
 import com.tonyodev.fetch2.Error;
@@ -160,7 +161,9 @@ public class SyncService extends Service {
     }
 
     private void enqueueDownloads(List<Request> requestList) {
-        if (requestList.isEmpty()) {
+        if (requestList.isEmpty() && hasPendingIndex()) {
+            extractAllRepos();
+        } else if (requestList.isEmpty()) {
             sendNotification(NotificationType.SUCCESS);
             AuroraApplication.rxNotify(new Event(EventType.SYNC_NO_UPDATES));
             notifyCompleted();
@@ -174,10 +177,21 @@ public class SyncService extends Service {
         }
     }
 
+    private boolean hasPendingIndex() {
+        final File[] files = new File(PathUtil.getRepoDirectory(this)).listFiles();
+        if (files == null)
+            return false;
+        for (File file : files)
+            if (FilenameUtils.getExtension(file.getName()).equals(Constants.JAR))
+                return true;
+        return false;
+    }
+
     private void extractAllRepos() {
         sendNotification(NotificationType.SYNCING);
 
-        final RepoSyncManager repoSyncManager = new RepoSyncManager(this);
+        final RepoSyncManager repoSyncManager = RepoSyncManager.getInstance(this);
+        final IndexCache indexCache = new IndexCache(this);
         final File repoDirectory = new File(PathUtil.getRepoDirectory(this));
         final File[] files = repoDirectory.listFiles();
 
@@ -189,15 +203,21 @@ public class SyncService extends Service {
             Observable.fromIterable(Arrays.asList(files))
                     .subscribeOn(Schedulers.io())
                     .filter(file -> FilenameUtils.getExtension(file.getName()).equals(Constants.JAR))//Filter JAR files
-                    .map(file -> new ExtractRepoTask(this, file).extract())//Extract the JAR
-                    .map(file -> new JsonParserTask(this, file).parse())//Add RawJSON to database
+                    .flatMap(file -> Observable
+                            .fromCallable(() -> new JsonParserTask(this, file).parse())//Stream the signed index into database
+                            .subscribeOn(Schedulers.io()), Util.getActiveRepoSyncCount(this))
                     .map(repoBundle -> {
                         final StaticRepo staticRepo = repoBundle.getStaticRepo();
                         if (repoBundle.isSynced()) {
                             AuroraApplication.rxNotify(new LogEvent(staticRepo.getRepoName() + " - " + getString(R.string.sync_completed)));
                             repoSyncManager.addToSyncMap(staticRepo);
+                            repoSyncManager.commitHeader(staticRepo.getRepoId());
+                            indexCache.put(staticRepo.getRepoId(), new File(PathUtil.getRepoDirectory(this)
+                                    + staticRepo.getRepoId() + "." + Constants.JAR));
                         } else {
                             AuroraApplication.rxNotify(new LogEvent(staticRepo.getRepoName() + " - " + getString(R.string.sync_failed)));
+                            repoSyncManager.discardHeader(staticRepo.getRepoId());
+                            indexCache.remove(staticRepo.getRepoId());
                         }
                         PathUtil.deleteRepoFiles(this, staticRepo.getRepoId());
                         return repoBundle.isSynced();
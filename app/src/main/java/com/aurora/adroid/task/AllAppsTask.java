@@ -23,6 +23,8 @@ import android.content.Context;
 import android.content.pm.PackageInfo;
 import android.content.pm.PackageManager;
 
+import com.aurora.adroid.manager.InstalledPackages;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -46,13 +48,11 @@ public class AllAppsTask {
 
     List<String> getLocalInstalledApps() {
         final List<String> packageList = new ArrayList<>();
-        for (PackageInfo packageInfo : packageManager.getInstalledPackages(PackageManager.GET_META_DATA)) {
-            final String packageName = packageInfo.packageName;
-
-            if (packageInfo.applicationInfo != null && !packageInfo.applicationInfo.enabled)
+        for (PackageInfo packageInfo : InstalledPackages.getInstance(context).getSnapshot().values()) {
+            if (!packageInfo.applicationInfo.enabled)
                 continue;
 
-            packageList.add(packageName);
+            packageList.add(packageInfo.packageName);
         }
         return packageList;
     }
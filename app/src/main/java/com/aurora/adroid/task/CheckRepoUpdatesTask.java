@@ -25,8 +25,11 @@ import android.content.ContextWrapper;
 import com.aurora.adroid.AuroraApplication;
 import com.aurora.adroid.Constants;
 import com.aurora.adroid.R;
+import com.aurora.adroid.download.HttpClient;
+import com.aurora.adroid.download.MirrorSelector;
 import com.aurora.adroid.download.RequestBuilder;
 import com.aurora.adroid.event.LogEvent;
+import com.aurora.adroid.manager.IndexCache;
 import com.aurora.adroid.manager.RepoSyncManager;
 import com.aurora.adroid.model.RepoHeader;
 import com.aurora.adroid.model.StaticRepo;
@@ -37,12 +40,16 @@ import com.tonyodev.fetch2core.Extras;
 
 import org.apache.commons.lang3.StringUtils;
 
-import java.util.ArrayList;
+import java.net.HttpURLConnection;
 import java.util.Calendar;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import javax.net.ssl.SSLHandshakeException;
 
+import io.reactivex.Maybe;
+import io.reactivex.Observable;
+import io.reactivex.schedulers.Schedulers;
 import okhttp3.OkHttpClient;
 import okhttp3.Response;
 
@@ -50,16 +57,17 @@ public class CheckRepoUpdatesTask extends ContextWrapper {
 
     private Context context;
     private RepoSyncManager repoSyncManager;
+    private IndexCache indexCache;
 
     public CheckRepoUpdatesTask(Context context) {
         super(context);
         this.context = context;
-        this.repoSyncManager = new RepoSyncManager(context);
+        this.repoSyncManager = RepoSyncManager.getInstance(context);
+        this.indexCache = new IndexCache(context);
     }
 
     public List<Request> getRepoRequestList() {
 
-        final RepoSyncManager repoSyncManager = new RepoSyncManager(this);
         final List<StaticRepo> staticRepoList = repoSyncManager.getRepoList();
 
         if (staticRepoList.isEmpty()) {
@@ -67,62 +75,105 @@ public class CheckRepoUpdatesTask extends ContextWrapper {
             staticRepoList.addAll(repoSyncManager.getRepoList());
         }
 
+        //Pick the best scored healthy mirror of each repo before building the requests
+        MirrorSelector.getInstance().refresh(this);
+
         final List<Request> requestList = RequestBuilder.buildRequest(this, staticRepoList);
-        final List<Request> filteredList = new ArrayList<>();
-
-        final OkHttpClient client = new OkHttpClient();
-        for (Request request : requestList) {
-            final Extras extras = request.getExtras();
-            final String repoId = extras.getString(Constants.DOWNLOAD_REPO_ID, StringUtils.EMPTY);
-            final String repoName = extras.getString(Constants.DOWNLOAD_REPO_NAME, StringUtils.EMPTY);
-            final String repoUrl = extras.getString(Constants.DOWNLOAD_REPO_URL, StringUtils.EMPTY);
-
-            if (repoId.isEmpty() || repoName.isEmpty() || repoUrl.isEmpty())
-                continue;
-
-            AuroraApplication.rxNotify(new LogEvent("Checking " + repoName + " for updates"));
-
-            final RepoHeader repoHeader = getRepoHeader(extras.getString(Constants.DOWNLOAD_REPO_ID, StringUtils.EMPTY));
-
-            final okhttp3.Request okhttpRequest = new okhttp3.Request.Builder()
-                    .url(request.getUrl())
-                    .head()
-                    .build();
-
-            try (Response response = client.newCall(okhttpRequest).execute()) {
-                final String header = response.header("Last-Modified");
-
-                if (header == null) {
-                    filteredList.add(request);
-                    continue;
-                }
-
-                final Long lastModified = Util.getMilliFromDate(header, Calendar.getInstance().getTimeInMillis());
-                if (repoHeader.getLastModified() == null) {
-                    repoHeader.setRepoId(repoId);
-                    repoHeader.setLastModified(lastModified);
-                    filteredList.add(request);
-                } else {
-                    if (repoHeader.getLastModified() < lastModified) {
-                        filteredList.add(request);
-                    }
-                    repoHeader.setLastModified(lastModified);
-                }
-                repoSyncManager.addToHeaderMap(repoHeader);
-            } catch (Exception e) {
-                if (e instanceof SSLHandshakeException)
-                    AuroraApplication.rxNotify(new LogEvent(StringUtils.joinWith(StringUtils.SPACE, e.getMessage(), "for", repoName)));
-                else
-                    AuroraApplication.rxNotify(new LogEvent(StringUtils.joinWith(StringUtils.SPACE,
-                            context.getString(R.string.repo_unable_to_reach),
-                            repoName)));
-
-                Log.e(StringUtils.joinWith(StringUtils.SPACE,
+        final OkHttpClient client = HttpClient.getInstance(this)
+                .newBuilder()
+                .callTimeout(20, TimeUnit.SECONDS)
+                .build();
+
+        //Check all repos at once, a slow mirror only delays its own repo
+        return Observable.fromIterable(requestList)
+                .flatMapMaybe(request -> Maybe
+                        .fromCallable(() -> shouldDownload(client, request) ? request : null)
+                        .subscribeOn(Schedulers.io()))
+                .toList()
+                .blockingGet();
+    }
+
+    private boolean shouldDownload(OkHttpClient client, Request request) {
+        final String repoId = request.getExtras().getString(Constants.DOWNLOAD_REPO_ID, StringUtils.EMPTY);
+        if (isUpdated(client, request))
+            return true;
+
+        //Unchanged on server but missing locally, prefer the cached index over a fresh download
+        if (!repoId.isEmpty() && !repoSyncManager.isSynced(repoId))
+            return !indexCache.restore(this, repoId);
+
+        return false;
+    }
+
+    private boolean isUpdated(OkHttpClient client, Request request) {
+        final Extras extras = request.getExtras();
+        final String repoId = extras.getString(Constants.DOWNLOAD_REPO_ID, StringUtils.EMPTY);
+        final String repoName = extras.getString(Constants.DOWNLOAD_REPO_NAME, StringUtils.EMPTY);
+        final String repoUrl = extras.getString(Constants.DOWNLOAD_REPO_URL, StringUtils.EMPTY);
+
+        if (repoId.isEmpty() || repoName.isEmpty() || repoUrl.isEmpty())
+            return false;
+
+        AuroraApplication.rxNotify(new LogEvent("Checking " + repoName + " for updates"));
+
+        final RepoHeader repoHeader = getRepoHeader(repoId);
+        final okhttp3.Request.Builder builder = new okhttp3.Request.Builder()
+                .url(request.getUrl())
+                .head();
+
+        final boolean sameMirror = request.getUrl().equals(repoHeader.getUrl());
+        if (sameMirror && repoHeader.getEtag() != null)
+            builder.header("If-None-Match", repoHeader.getEtag());
+        if (repoHeader.getLastModified() != null)
+            builder.header("If-Modified-Since", Util.getHttpDate(repoHeader.getLastModified()));
+
+        try (Response response = client.newCall(builder.build()).execute()) {
+            if (response.code() == HttpURLConnection.HTTP_NOT_MODIFIED)
+                return false;
+
+            final String etag = response.header("ETag");
+            final String header = response.header("Last-Modified");
+
+            if (etag == null && header == null)
+                return true;
+
+            final Long lastModified = header == null
+                    ? null
+                    : Util.getMilliFromDate(header, Calendar.getInstance().getTimeInMillis());
+
+            final boolean updated;
+            if (sameMirror && etag != null && repoHeader.getEtag() != null)
+                updated = !etag.equals(repoHeader.getEtag());
+            else if (lastModified != null && repoHeader.getLastModified() != null)
+                updated = repoHeader.getLastModified() < lastModified;
+            else
+                updated = true;
+
+            final RepoHeader newHeader = new RepoHeader();
+            newHeader.setRepoId(repoId);
+            newHeader.setEtag(etag);
+            newHeader.setLastModified(lastModified);
+            newHeader.setUrl(request.getUrl());
+
+            //A changed index only keeps its validators if it parses and verifies
+            if (updated)
+                repoSyncManager.stageHeader(newHeader);
+            else
+                repoSyncManager.addToHeaderMap(newHeader);
+            return updated;
+        } catch (Exception e) {
+            if (e instanceof SSLHandshakeException)
+                AuroraApplication.rxNotify(new LogEvent(StringUtils.joinWith(StringUtils.SPACE, e.getMessage(), "for", repoName)));
+            else
+                AuroraApplication.rxNotify(new LogEvent(StringUtils.joinWith(StringUtils.SPACE,
                         context.getString(R.string.repo_unable_to_reach),
-                        request.getUrl()));
-            }
+                        repoName)));
+
+            Log.e(StringUtils.joinWith(StringUtils.SPACE,
+                    context.getString(R.string.repo_unable_to_reach),
+                    request.getUrl()));
+            return false;
         }
-        return filteredList;
     }
 
     private RepoHeader getRepoHeader(String repoId) {
@@ -21,15 +21,31 @@ package com.aurora.adroid.task;
 
 import android.content.Context;
 import android.content.ContextWrapper;
+import android.text.TextUtils;
 
+import com.aurora.adroid.Constants;
 import com.aurora.adroid.database.AppDao;
 import com.aurora.adroid.database.AppDatabase;
+import com.aurora.adroid.database.AppDetailDao;
 import com.aurora.adroid.database.AppPackageDao;
+import com.aurora.adroid.database.AppSearchDao;
+import com.aurora.adroid.model.App;
 import com.aurora.adroid.model.StaticRepo;
+import com.aurora.adroid.model.v2.AppDetail;
+import com.aurora.adroid.model.v2.AppSearch;
+import com.aurora.adroid.util.LocalizationUtil;
 import com.aurora.adroid.util.Log;
+import com.aurora.adroid.util.PrefUtil;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.List;
+import java.util.Locale;
 
 public class DatabaseTask extends ContextWrapper {
 
+    private static final int PAGE_SIZE = 500;
+
     private Context context;
 
     public DatabaseTask(Context context) {
@@ -48,6 +64,49 @@ public class DatabaseTask extends ContextWrapper {
         }
     }
 
+    //Re-resolves display name, summary & icon of every app and its search row when the locale differs from the last run
+    public static synchronized boolean refreshDisplayFields(Context context, Locale locale) {
+        final List<String> localeChain = LocalizationUtil.getLocaleChain(locale);
+        final String localeKey = TextUtils.join(",", localeChain);
+        if (localeKey.equals(PrefUtil.getString(context, Constants.PREFERENCE_LOCALE_RESOLVED)))
+            return false;
+
+        try {
+            final AppDatabase appDatabase = AppDatabase.getDatabase(context);
+            final AppDao appDao = appDatabase.appDao();
+            final AppDetailDao appDetailDao = appDatabase.appDetailDao();
+            final AppSearchDao appSearchDao = appDatabase.appSearchDao();
+
+            List<App> appList = appDao.getAppsAfter(StringUtils.EMPTY, StringUtils.EMPTY, PAGE_SIZE);
+            while (!appList.isEmpty()) {
+                final List<App> page = appList;
+                appDatabase.runInTransaction(() -> {
+                    for (App app : page) {
+                        LocalizationUtil.resolveDisplayFields(app, localeChain);
+                        appDao.updateDisplayFields(app.getRepoId(), app.getPackageName(),
+                                app.getDisplayName(), app.getDisplaySummary(), app.getDisplayIcon());
+                        final AppDetail appDetail = appDetailDao.getAppDetail(app.getPackageName(), app.getRepoId());
+                        final String description = appDetail == null
+                                ? null
+                                : LocalizationUtil.resolveDescription(appDetail.getDescription(), appDetail.getLocalizationMap(), localeChain);
+                        appSearchDao.updateDisplayFields(AppSearch.getRowId(app.getRepoId(), app.getPackageName()),
+                                app.getDisplayName(), app.getDisplaySummary(), description);
+                    }
+                });
+
+                final App last = page.get(page.size() - 1);
+                appList = appDao.getAppsAfter(last.getRepoId(), last.getPackageName(), PAGE_SIZE);
+            }
+
+            PrefUtil.putString(context, Constants.PREFERENCE_LOCALE_RESOLVED, localeKey);
+            Log.i("Display fields resolved for %s", localeKey);
+            return true;
+        } catch (Exception e) {
+            Log.e(e.getMessage());
+            return false;
+        }
+    }
+
     public boolean clearRepo(StaticRepo staticRepo) {
         try {
             final AppDatabase appDatabase = AppDatabase.getDatabase(context);
@@ -55,6 +114,10 @@ public class DatabaseTask extends ContextWrapper {
             final AppPackageDao packageDao = appDatabase.appPackageDao();
             appDao.clearRepo(staticRepo.getRepoId());
             packageDao.clear(staticRepo.getRepoId());
+            appDatabase.appCategoryDao().clear(staticRepo.getRepoId());
+            appDatabase.appDetailDao().clear(staticRepo.getRepoId());
+            appDatabase.appSearchDao().clear(staticRepo.getRepoId());
+            appDatabase.appPendingDao().clear(staticRepo.getRepoId());
             return true;
         } catch (Exception e) {
             Log.e(e.getMessage());
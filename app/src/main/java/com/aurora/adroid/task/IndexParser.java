@@ -0,0 +1,90 @@
+/*
+ * Aurora Droid
+ * Copyright (C) 2019-20, Rahul Kumar Patel <whyorean@gmail.com>
+ *
+ * Aurora Droid is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Aurora Droid is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Aurora Droid.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.aurora.adroid.task;
+
+import com.aurora.adroid.model.App;
+import com.aurora.adroid.model.Package;
+import com.aurora.adroid.model.v2.Repo;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+public class IndexParser {
+
+    private static final Type PACKAGE_LIST_TYPE = new TypeToken<List<Package>>() {
+    }.getType();
+
+    private final Gson gson;
+    private final Callback callback;
+
+    public IndexParser(Callback callback) {
+        this.gson = new GsonBuilder().excludeFieldsWithModifiers(Modifier.TRANSIENT).create();
+        this.callback = callback;
+    }
+
+    //Walks index-v1.json token by token, only one app or one package list is materialized at a time
+    public void parse(InputStream inputStream) throws Exception {
+        final JsonReader reader = new JsonReader(new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8)));
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "repo":
+                    callback.onRepo(gson.fromJson(reader, Repo.class));
+                    break;
+                case "apps":
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        callback.onApp(gson.fromJson(reader, App.class));
+                    }
+                    reader.endArray();
+                    break;
+                case "packages":
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        final String packageName = reader.nextName();
+                        final List<Package> packageList = gson.fromJson(reader, PACKAGE_LIST_TYPE);
+                        callback.onPackages(packageName, packageList);
+                    }
+                    reader.endObject();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    public interface Callback {
+        void onRepo(Repo repo) throws Exception;
+
+        void onApp(App app) throws Exception;
+
+        void onPackages(String packageName, List<Package> packageList) throws Exception;
+    }
+}
@@ -22,97 +22,125 @@ package com.aurora.adroid.task;
 import android.content.Context;
 import android.content.ContextWrapper;
 
-import com.aurora.adroid.database.AppDao;
-import com.aurora.adroid.database.AppDatabase;
-import com.aurora.adroid.database.AppPackageDao;
-import com.aurora.adroid.database.RepoDao;
+import com.aurora.adroid.Constants;
+import com.aurora.adroid.database.RepoWriter;
+import com.aurora.adroid.download.MirrorSelector;
 import com.aurora.adroid.manager.RepoBundle;
 import com.aurora.adroid.manager.RepoListManager;
 import com.aurora.adroid.model.App;
 import com.aurora.adroid.model.Package;
 import com.aurora.adroid.model.StaticRepo;
 import com.aurora.adroid.model.v2.AppPackage;
-import com.aurora.adroid.model.v2.Index;
-import com.aurora.adroid.util.PathUtil;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
+import com.aurora.adroid.model.v2.Repo;
+import com.aurora.adroid.util.CertUtil;
 
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
 
 import java.io.File;
-import java.lang.reflect.Modifier;
-import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.CodeSigner;
+import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
 import java.util.List;
-
-import static com.aurora.adroid.Constants.JSON;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
 
 public class JsonParserTask extends ContextWrapper {
 
     private File file;
-    private String repoDir;
     private RepoListManager repoListManager;
 
     public JsonParserTask(Context context, File file) {
         super(context);
         this.file = file;
-        this.repoDir = PathUtil.getRepoDirectory(context);
         this.repoListManager = new RepoListManager(context);
     }
 
     public RepoBundle parse() {
 
         boolean status = false;
-        final AppDatabase appDatabase = AppDatabase.getDatabase(this);
-        final AppDao appDao = appDatabase.appDao();
-        final AppPackageDao packageDao = appDatabase.appPackageDao();
-        final RepoDao repoDao = appDatabase.repoDao();
 
         final StaticRepo staticRepo = repoListManager.getRepoById(FilenameUtils.getBaseName(file.getName()));
+        final RepoWriter repoWriter = new RepoWriter(this, staticRepo.getRepoId());
+        final Repo[] repo = new Repo[1];
 
-        final File jsonFile = new File(repoDir + staticRepo.getRepoId() + JSON);
-        final Gson gson = new GsonBuilder().excludeFieldsWithModifiers(Modifier.TRANSIENT).create();
-
-        try {
-            final String jsonString = IOUtils.toString(FileUtils.openInputStream(jsonFile), StandardCharsets.UTF_8);
-
-
-            final Index index = gson.fromJson(jsonString, Index.class);
-            final HashMap<String, List<Package>> packageHashMap = index.getPackages();
-
-            final List<App> appList = new ArrayList<>();
-            final List<AppPackage> appPackageList = new ArrayList<>();
+        final IndexParser indexParser = new IndexParser(new IndexParser.Callback() {
+            @Override
+            public void onRepo(Repo index) {
+                repo[0] = index;
+            }
 
-            for (App app : index.getApps()) {
+            @Override
+            public void onApp(App app) throws Exception {
                 app.setRepoId(staticRepo.getRepoId());
                 app.setRepoName(staticRepo.getRepoName());
                 app.setRepoUrl(staticRepo.getRepoUrl());
-                List<Package> packageList = packageHashMap.get(app.getPackageName());
+                repoWriter.addApp(app);
+            }
 
+            @Override
+            public void onPackages(String packageName, List<Package> packageList) throws Exception {
                 //Create app package
-                AppPackage appPackage = new AppPackage();
+                final AppPackage appPackage = new AppPackage();
                 appPackage.setRepoId(staticRepo.getRepoId());
-                appPackage.setPackageName(app.getPackageName());
+                appPackage.setPackageName(packageName);
                 appPackage.setPackageList(packageList);
-
-                appList.add(app);
-                appPackageList.add(appPackage);
+                repoWriter.addAppPackage(appPackage);
             }
+        });
+
+        //Parse the index straight out of the signed JAR, nothing is committed unless its signer checks out
+        try (JarFile jarFile = new JarFile(file, true)) {
+            final JarEntry jarEntry = jarFile.getJarEntry(Constants.DATA_FILE_NAME);
+            if (jarEntry == null)
+                throw new IOException("Index not found in " + file.getName());
+
+            try (InputStream inputStream = jarFile.getInputStream(jarEntry)) {
+                indexParser.parse(inputStream);
+                //Signers are only available once the entry has been read till EOF
+                IOUtils.skip(inputStream, Long.MAX_VALUE);
+            }
+
+            //Rows already written by the parser are undone by abort()
+            if (!isSignedBy(jarEntry, staticRepo.getRepoFingerprint()))
+                throw new SecurityException("Index signature mismatch for " + staticRepo.getRepoName());
 
-            appDatabase.getQueryExecutor().execute(() -> {
-                appDao.insertAll(appList);
-                packageDao.insertAll(appPackageList);
-            });
+            if (repo[0] == null)
+                throw new IOException("Repo info missing in " + file.getName());
 
-            index.repo.setRepoId(staticRepo.getRepoId());
-            repoDao.insert(index.repo);
+            //Returns once every chunk is written and the pending rows are made final
+            repoWriter.commit(repo[0]);
+            MirrorSelector.getInstance().register(this, staticRepo, repo[0].getMirrors());
             status = true;
         } catch (Exception e) {
+            repoWriter.abort();
             e.printStackTrace();
         }
         return new RepoBundle(status, staticRepo);
     }
+
+    private boolean isSignedBy(JarEntry jarEntry, String repoFingerprint) {
+        final String fingerprint = StringUtils.deleteWhitespace(repoFingerprint);
+
+        //Repos added without a fingerprint can not be pinned
+        if (StringUtils.isEmpty(fingerprint))
+            return true;
+
+        final CodeSigner[] codeSigners = jarEntry.getCodeSigners();
+        if (codeSigners == null)
+            return false;
+
+        for (CodeSigner codeSigner : codeSigners) {
+            final List<? extends Certificate> certificateList = codeSigner.getSignerCertPath().getCertificates();
+            if (certificateList.isEmpty() || !(certificateList.get(0) instanceof X509Certificate))
+                continue;
+            final X509Certificate certificate = (X509Certificate) certificateList.get(0);
+            if (fingerprint.equalsIgnoreCase(CertUtil.getCertificateFingerprint(certificate, "SHA-256")))
+                return true;
+        }
+        return false;
+    }
 }
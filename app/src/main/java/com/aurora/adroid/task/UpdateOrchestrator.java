@@ -0,0 +1,248 @@
+/*
+ * Aurora Droid
+ * Copyright (C) 2019-20, Rahul Kumar Patel <whyorean@gmail.com>
+ *
+ * Aurora Droid is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Aurora Droid is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Aurora Droid.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.aurora.adroid.task;
+
+import android.content.Context;
+
+import com.aurora.adroid.AuroraApplication;
+import com.aurora.adroid.download.DownloadManager;
+import com.aurora.adroid.download.RequestBuilder;
+import com.aurora.adroid.event.Event;
+import com.aurora.adroid.event.EventType;
+import com.aurora.adroid.installer.InstallQueue;
+import com.aurora.adroid.model.App;
+import com.aurora.adroid.util.Log;
+import com.aurora.adroid.util.Util;
+import com.tonyodev.fetch2.AbstractFetchGroupListener;
+import com.tonyodev.fetch2.Download;
+import com.tonyodev.fetch2.Error;
+import com.tonyodev.fetch2.Fetch;
+import com.tonyodev.fetch2.FetchGroup;
+import com.tonyodev.fetch2.FetchListener;
+import com.tonyodev.fetch2.Request;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//Bulk updates run behind one Fetch listener: downloads are fed a few at a time,
+//finished APKs go to the install queue while the next ones keep downloading
+public class UpdateOrchestrator {
+
+    private static final long STATS_INTERVAL = 1000;
+
+    private static volatile UpdateOrchestrator instance;
+
+    private final Context context;
+    private final Fetch fetch;
+    private final FetchListener fetchListener;
+    private final Deque<App> pendingQueue = new ArrayDeque<>();
+    private final Map<Integer, App> activeMap = new HashMap<>();
+    //groupId -> {downloaded, total, bytesPerSecond}
+    private final Map<Integer, long[]> progressMap = new HashMap<>();
+
+    private Runnable idleCallback;
+    private boolean listening = false;
+    private long lastStatsTime = 0;
+
+    private UpdateOrchestrator(Context context) {
+        this.context = context;
+        this.fetch = DownloadManager.getFetchInstance(context);
+        this.fetchListener = getFetchListener();
+    }
+
+    public static UpdateOrchestrator getInstance(Context context) {
+        if (instance == null) {
+            synchronized (UpdateOrchestrator.class) {
+                if (instance == null)
+                    instance = new UpdateOrchestrator(context.getApplicationContext());
+            }
+        }
+        return instance;
+    }
+
+    //Called once every queued download has finished or failed
+    public synchronized void setIdleCallback(Runnable idleCallback) {
+        this.idleCallback = idleCallback;
+    }
+
+    public synchronized void enqueue(List<App> appList) {
+        for (App app : appList) {
+            if (app.getPkg() == null)
+                continue;
+            if (!activeMap.containsKey(getGroupId(app)) && !pendingQueue.contains(app))
+                pendingQueue.add(app);
+        }
+
+        if (!listening) {
+            fetch.addListener(fetchListener);
+            listening = true;
+        }
+        feed();
+    }
+
+    public synchronized void cancelAll() {
+        pendingQueue.clear();
+        for (Integer groupId : new ArrayList<>(activeMap.keySet()))
+            fetch.cancelGroup(groupId);
+        activeMap.clear();
+        progressMap.clear();
+        checkIdle();
+    }
+
+    public synchronized boolean isActive() {
+        return listening;
+    }
+
+    private void feed() {
+        final int maxActive = Math.max(1, Util.getActiveDownloadCount(context));
+        while (activeMap.size() < maxActive && !pendingQueue.isEmpty()) {
+            final App app = pendingQueue.poll();
+            final Request request = RequestBuilder.buildRequest(context, app);
+            final int groupId = request.getGroupId();
+            activeMap.put(groupId, app);
+            progressMap.put(groupId, new long[]{0, getSize(app), 0});
+            fetch.enqueue(request,
+                    updatedRequest -> Log.i("Downloading App : %s", app.getPackageName()),
+                    error -> {
+                        Log.e("Failed to enqueue %s : %s", app.getPackageName(), error.name());
+                        release(groupId);
+                    });
+        }
+        checkIdle();
+    }
+
+    private synchronized void release(int groupId) {
+        if (activeMap.remove(groupId) != null) {
+            progressMap.remove(groupId);
+            feed();
+        }
+    }
+
+    private synchronized void onDownloaded(int groupId, Download download) {
+        final App app = activeMap.remove(groupId);
+        if (app == null)
+            return;
+
+        progressMap.remove(groupId);
+        if (Util.shouldAutoInstallApk(context))
+            InstallQueue.getInstance(context).enqueue(app.getPackageName(), download.getFile());
+        feed();
+    }
+
+    private synchronized void onProgress(int groupId, Download download, long downloadedBytesPerSecond) {
+        final long[] progress = progressMap.get(groupId);
+        if (progress == null)
+            return;
+
+        progress[0] = download.getDownloaded();
+        if (download.getTotal() > 0)
+            progress[1] = download.getTotal();
+        progress[2] = Math.max(0, downloadedBytesPerSecond);
+
+        final long now = System.currentTimeMillis();
+        if (now - lastStatsTime >= STATS_INTERVAL) {
+            lastStatsTime = now;
+            publishStats();
+        }
+    }
+
+    //Throughput is summed over active downloads, ETA covers the pending ones at the same rate
+    private void publishStats() {
+        long bytesPerSecond = 0;
+        long remainingBytes = 0;
+        for (long[] progress : progressMap.values()) {
+            bytesPerSecond += progress[2];
+            remainingBytes += Math.max(0, progress[1] - progress[0]);
+        }
+        for (App app : pendingQueue)
+            remainingBytes += getSize(app);
+
+        final long etaInMilliSeconds = bytesPerSecond > 0 ? remainingBytes * 1000 / bytesPerSecond : -1;
+        final String stats = StringUtils.joinWith(" • ",
+                Util.getDownloadSpeedString(context, bytesPerSecond),
+                Util.getETAString(context, etaInMilliSeconds));
+        AuroraApplication.rxNotify(new Event(EventType.BULK_UPDATE_PROGRESS, stats,
+                activeMap.size() + pendingQueue.size()));
+    }
+
+    private void checkIdle() {
+        if (!listening || !activeMap.isEmpty() || !pendingQueue.isEmpty())
+            return;
+
+        fetch.removeListener(fetchListener);
+        listening = false;
+        if (idleCallback != null)
+            idleCallback.run();
+    }
+
+    private FetchListener getFetchListener() {
+        return new AbstractFetchGroupListener() {
+            @Override
+            public void onProgress(int groupId, @NotNull Download download, long etaInMilliSeconds,
+                                   long downloadedBytesPerSecond, @NotNull FetchGroup fetchGroup) {
+                UpdateOrchestrator.this.onProgress(groupId, download, downloadedBytesPerSecond);
+            }
+
+            @Override
+            public void onCompleted(int groupId, @NotNull Download download, @NotNull FetchGroup fetchGroup) {
+                if (fetchGroup.getGroupDownloadProgress() == 100)
+                    onDownloaded(groupId, download);
+            }
+
+            @Override
+            public void onError(int groupId, @NotNull Download download, @NotNull Error error,
+                                @Nullable Throwable throwable, @NotNull FetchGroup fetchGroup) {
+                release(groupId);
+            }
+
+            @Override
+            public void onCancelled(int groupId, @NotNull Download download, @NotNull FetchGroup fetchGroup) {
+                release(groupId);
+            }
+
+            @Override
+            public void onRemoved(int groupId, @NotNull Download download, @NotNull FetchGroup fetchGroup) {
+                release(groupId);
+            }
+
+            @Override
+            public void onDeleted(int groupId, @NotNull Download download, @NotNull FetchGroup fetchGroup) {
+                release(groupId);
+            }
+        };
+    }
+
+    private static int getGroupId(App app) {
+        return app.getPackageName().hashCode();
+    }
+
+    private static long getSize(App app) {
+        final Long size = app.getPkg().getSize();
+        return size == null ? 0 : size;
+    }
+}
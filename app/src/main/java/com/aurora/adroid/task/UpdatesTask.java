@@ -0,0 +1,138 @@
+/*
+ * Aurora Droid
+ * Copyright (C) 2019-20, Rahul Kumar Patel <whyorean@gmail.com>
+ *
+ * Aurora Droid is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Aurora Droid is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Aurora Droid.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.aurora.adroid.task;
+
+import android.content.Context;
+import android.content.ContextWrapper;
+import android.content.pm.PackageInfo;
+
+import com.aurora.adroid.database.AppDatabase;
+import com.aurora.adroid.model.App;
+import com.aurora.adroid.model.Package;
+import com.aurora.adroid.model.v2.AppPackage;
+import com.aurora.adroid.util.CertUtil;
+import com.aurora.adroid.util.PackageUtil;
+import com.aurora.adroid.util.Util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.reactivex.Flowable;
+import io.reactivex.schedulers.Schedulers;
+
+public class UpdatesTask extends ContextWrapper {
+
+    private static final int MAX_QUERY_ARGS = 500;
+
+    private final AppDatabase appDatabase;
+    private final Map<String, String> signerMap = new ConcurrentHashMap<>();
+
+    public UpdatesTask(Context context) {
+        super(context.getApplicationContext());
+        this.appDatabase = AppDatabase.getDatabase(context);
+    }
+
+    //Candidates and their packages are fetched with a handful of IN (...) queries, matching runs in parallel
+    public List<App> getUpdatableApps(Map<String, PackageInfo> packageInfoMap) {
+        final List<String> packageNames = new ArrayList<>(packageInfoMap.keySet());
+        final List<App> appList = new ArrayList<>();
+        final Map<String, AppPackage> appPackageMap = new HashMap<>();
+
+        //Rows carry the newest version this device can run, only apps ahead of the installed one are kept
+        for (int i = 0; i < packageNames.size(); i += MAX_QUERY_ARGS) {
+            final List<String> chunk = packageNames.subList(i, Math.min(i + MAX_QUERY_ARGS, packageNames.size()));
+            for (App app : appDatabase.appDao().getAppsByPackageNames(chunk)) {
+                final PackageInfo packageInfo = packageInfoMap.get(app.getPackageName());
+                if (packageInfo != null && app.getCompatibleVersionCode() > packageInfo.versionCode)
+                    appList.add(app);
+            }
+        }
+
+        if (appList.isEmpty())
+            return new ArrayList<>();
+
+        final Set<String> candidateSet = new HashSet<>();
+        for (App app : appList)
+            candidateSet.add(app.getPackageName());
+
+        final List<String> candidateNames = new ArrayList<>(candidateSet);
+        for (int i = 0; i < candidateNames.size(); i += MAX_QUERY_ARGS) {
+            final List<String> chunk = candidateNames.subList(i, Math.min(i + MAX_QUERY_ARGS, candidateNames.size()));
+            for (AppPackage appPackage : appDatabase.appPackageDao().getAppPackages(chunk)) {
+                appPackageMap.put(getKey(appPackage.getRepoId(), appPackage.getPackageName()), appPackage);
+            }
+        }
+
+        final boolean allowSuggestedOnly = Util.isSuggestedUpdatesEnabled(this);
+        return Flowable.fromIterable(appList)
+                .parallel()
+                .runOn(Schedulers.computation())
+                .flatMap(app -> {
+                    final PackageInfo packageInfo = packageInfoMap.get(app.getPackageName());
+                    final AppPackage appPackage = appPackageMap.get(getKey(app.getRepoId(), app.getPackageName()));
+                    final Package pkg = getUpdatablePackage(app, appPackage, packageInfo, allowSuggestedOnly);
+                    if (pkg == null)
+                        return Flowable.empty();
+                    app.setPkg(pkg);
+                    return Flowable.just(app);
+                })
+                .sequential()
+                .toList()
+                .blockingGet();
+    }
+
+    private Package getUpdatablePackage(App app, AppPackage appPackage, PackageInfo packageInfo, boolean allowSuggestedOnly) {
+        if (packageInfo == null || appPackage == null || appPackage.getPackageList() == null)
+            return null;
+
+        //Device compatibility is stored with each package, only the signer is left to match here
+        final List<Package> compatiblePackages = PackageUtil.markCompatiblePackages(appPackage.getPackageList(),
+                getSigner(packageInfo), true);
+        if (compatiblePackages == null)
+            return null;
+
+        for (Package pkg : compatiblePackages) {
+            if (pkg.isCompatible() && PackageUtil.isUpdatableVersion(this, pkg, packageInfo)) {
+                if (!allowSuggestedOnly || PackageUtil.isSuggestedUpdatableVersion(packageInfo, app, pkg))
+                    return pkg;
+            }
+        }
+        return null;
+    }
+
+    //Same package may come from several repos, its signer is read once per run
+    private String getSigner(PackageInfo packageInfo) {
+        String signer = signerMap.get(packageInfo.packageName);
+        if (signer == null) {
+            signer = CertUtil.getSHA256(this, packageInfo);
+            signerMap.put(packageInfo.packageName, signer);
+        }
+        return signer;
+    }
+
+    private static String getKey(String repoId, String packageName) {
+        return repoId + "/" + packageName;
+    }
+}
@@ -38,6 +38,7 @@ import com.aurora.adroid.R;
 import com.aurora.adroid.download.DownloadManager;
 import com.aurora.adroid.download.RequestBuilder;
 import com.aurora.adroid.installer.AppInstaller;
+import com.aurora.adroid.installer.InstallQueue;
 import com.aurora.adroid.model.App;
 import com.aurora.adroid.model.Package;
 import com.aurora.adroid.util.CertUtil;
@@ -161,9 +162,7 @@ public class AppActionDetails extends AbstractDetails {
             btnPositive.setText(R.string.action_installing);
             btnPositive.setEnabled(false);
 
-            AppInstaller.getInstance(context)
-                    .getDefaultInstaller()
-                    .installApk(app.getPackageName(), filePath);
+            InstallQueue.getInstance(context).enqueue(app.getPackageName(), filePath);
         };
     }
 
@@ -326,8 +325,7 @@ public class AppActionDetails extends AbstractDetails {
                             btnPositive.setEnabled(false);
                         });
 
-                        AppInstaller.getInstance(context).getDefaultInstaller()
-                                .installApk(app.getPackageName(), download.getFile());
+                        InstallQueue.getInstance(context).enqueue(app.getPackageName(), download.getFile());
                     }
                     fetch.removeListener(this);
                 }
@@ -31,6 +31,8 @@ import android.widget.ImageView;
 import androidx.annotation.Nullable;
 import androidx.coordinatorlayout.widget.CoordinatorLayout;
 import androidx.lifecycle.ViewModelProvider;
+import androidx.paging.PagedList;
+import androidx.recyclerview.widget.AsyncDifferConfig;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
@@ -42,28 +44,19 @@ import com.aurora.adroid.model.items.GenericItem;
 import com.aurora.adroid.ui.details.DetailsActivity;
 import com.aurora.adroid.ui.sheet.AppMenuSheet;
 import com.aurora.adroid.ui.view.ViewFlipper2;
-import com.aurora.adroid.util.LocalizationUtil;
-import com.aurora.adroid.util.TextUtil;
 import com.aurora.adroid.util.ViewUtil;
 import com.aurora.adroid.viewmodel.SearchAppsViewModel;
 import com.google.android.material.chip.Chip;
 import com.google.android.material.textfield.TextInputEditText;
 import com.mikepenz.fastadapter.FastAdapter;
-import com.mikepenz.fastadapter.adapters.ItemAdapter;
-import com.mikepenz.fastadapter.listeners.ItemFilterListener;
-
-import java.util.Collections;
-import java.util.List;
+import com.mikepenz.fastadapter.paged.PagedModelAdapter;
 
 import butterknife.BindView;
 import butterknife.ButterKnife;
 import butterknife.OnClick;
-import io.reactivex.Observable;
-import io.reactivex.android.schedulers.AndroidSchedulers;
-import io.reactivex.schedulers.Schedulers;
 import me.zhanghai.android.fastscroll.FastScrollerBuilder;
 
-public class SearchActivity extends BaseActivity implements ItemFilterListener<GenericItem> {
+public class SearchActivity extends BaseActivity {
 
     @BindView(R.id.viewFlipper)
     ViewFlipper2 viewFlipper;
@@ -91,8 +84,7 @@ public class SearchActivity extends BaseActivity implements ItemFilterListener<G
     private boolean imeVisible = false;
     private SearchAppsViewModel model;
     private FastAdapter<GenericItem> fastAdapter;
-    private ItemAdapter<GenericItem> itemAdapter;
-    private boolean isDataLoaded = false;
+    private PagedModelAdapter<App, GenericItem> pagedAdapter;
 
     private InputMethodManager inputMethodManager;
 
@@ -110,7 +102,7 @@ public class SearchActivity extends BaseActivity implements ItemFilterListener<G
         setupChip();
 
         model = new ViewModelProvider(this).get(SearchAppsViewModel.class);
-        model.getAppsLiveData().observe(this, this::setupApps);
+        model.getPagedAppsLiveData().observe(this, this::setupApps);
     }
 
     @Override
@@ -150,8 +142,8 @@ public class SearchActivity extends BaseActivity implements ItemFilterListener<G
 
             @Override
             public void onTextChanged(CharSequence s, int start, int before, int count) {
-                if (isDataLoaded)
-                    itemAdapter.filter(s);
+                if (model != null)
+                    model.search(s.toString());
             }
 
             @Override
@@ -172,61 +164,22 @@ public class SearchActivity extends BaseActivity implements ItemFilterListener<G
     }
 
     private void sortAppsBy(Sort sort) {
-        if (itemAdapter != null) {
-            sortAdapterItems(sort);
-        }
-    }
-
-    public void sortAdapterItems(Sort sort) {
-        switch (sort) {
-            case NAME_AZ:
-                Collections.sort(itemAdapter.getAdapterItems(), (App1, App2) ->
-                        LocalizationUtil.getLocalizedName(this, App1.getApp()).compareToIgnoreCase(LocalizationUtil.getLocalizedName(this, App2.getApp())));
-                break;
-            case NAME_ZA:
-                Collections.sort(itemAdapter.getAdapterItems(), (App1, App2) ->
-                        LocalizationUtil.getLocalizedName(this, App2.getApp()).compareToIgnoreCase(LocalizationUtil.getLocalizedName(this, App1.getApp())));
-                break;
-            case SIZE_MIN:
-                Collections.sort(itemAdapter.getAdapterItems(), (App1, App2) ->
-                        App1.getApp().getPkg().getSize().compareTo(App2.getApp().getPkg().getSize()));
-                break;
-            case SIZE_MAX:
-                Collections.sort(itemAdapter.getAdapterItems(), (App1, App2) ->
-                        App2.getApp().getPkg().getSize().compareTo(App1.getApp().getPkg().getSize()));
-                break;
-            case DATE_UPDATED:
-                Collections.sort(itemAdapter.getAdapterItems(), (App1, App2) ->
-                        App2.getApp().getLastUpdated().compareTo(App1.getApp().getLastUpdated()));
-                break;
-            case DATE_ADDED:
-                Collections.sort(itemAdapter.getAdapterItems(), (App1, App2) ->
-                        App2.getApp().getAdded().compareTo(App1.getApp().getAdded()));
-                break;
+        if (model != null) {
+            model.setSort(sort);
         }
-        fastAdapter.notifyAdapterDataSetChanged();
     }
 
-    private void setupApps(List<App> apps) {
-        Observable.fromIterable(apps)
-                .subscribeOn(Schedulers.io())
-                .map(GenericItem::new)
-                .sorted((App1, App2) -> App2.getApp().getLastUpdated().compareTo(App1.getApp().getLastUpdated()))
-                .toList()
-                .observeOn(AndroidSchedulers.mainThread())
-                .doOnSuccess(genericItems -> {
-                    itemAdapter.add(genericItems);
-                    isDataLoaded = true;
-                    updatePageData();
-                })
-                .subscribe();
+    private void setupApps(PagedList<App> apps) {
+        pagedAdapter.submitList(apps);
+        updatePageData(apps);
     }
 
     private void setupRecycler() {
-        fastAdapter = new FastAdapter<>();
-        itemAdapter = new ItemAdapter<>();
-
-        fastAdapter.addAdapter(0, itemAdapter);
+        pagedAdapter = new PagedModelAdapter<>(
+                new AsyncDifferConfig.Builder<>(GenericItem.DIFF_CALLBACK).build(),
+                position -> null, //Placeholders are disabled
+                GenericItem::new);
+        fastAdapter = FastAdapter.with(pagedAdapter);
 
         fastAdapter.setOnClickListener((view, adapter, item, position) -> {
             final App app = item.getApp();
@@ -248,31 +201,6 @@ public class SearchActivity extends BaseActivity implements ItemFilterListener<G
             return true;
         });
 
-        itemAdapter.getItemFilter().setFilterPredicate((genericItem, charSequence) -> {
-            final App app = genericItem.getApp();
-
-            String query = charSequence.toString();
-            query = TextUtil.cleanUpString(query);
-
-            String appName = LocalizationUtil.getLocalizedName(this, app);
-            appName = TextUtil.cleanUpString(appName);
-
-            if (appName.contains(query)) {
-                return true;
-            }
-
-            String summary = LocalizationUtil.getLocalizedSummary(this, app);
-
-            if (!summary.isEmpty()) {
-                summary = TextUtil.cleanUpString(summary);
-                return summary.contains(query);
-            }
-
-            return false;
-        });
-
-        itemAdapter.getItemFilter().setItemFilterListener(this);
-
         recyclerView.setAdapter(fastAdapter);
         recyclerView.setLayoutManager(new LinearLayoutManager(this, RecyclerView.VERTICAL, false));
 
@@ -281,20 +209,11 @@ public class SearchActivity extends BaseActivity implements ItemFilterListener<G
                 .build();
     }
 
-    private void updatePageData() {
-        if (itemAdapter != null && itemAdapter.getAdapterItems().size() > 0) {
+    private void updatePageData(PagedList<App> apps) {
+        if (apps != null && !apps.isEmpty()) {
             viewFlipper.switchState(ViewFlipper2.DATA);
         } else {
             viewFlipper.switchState(ViewFlipper2.EMPTY);
         }
     }
-
-    @Override
-    public void onReset() {
-    }
-
-    @Override
-    public void itemsFiltered(@Nullable CharSequence charSequence, @Nullable List<? extends GenericItem> list) {
-        updatePageData();
-    }
 }
@@ -19,7 +19,6 @@
 
 package com.aurora.adroid.ui.generic.fragment;
 
-import android.content.Context;
 import android.content.Intent;
 import android.os.Bundle;
 import android.view.LayoutInflater;
@@ -46,11 +45,10 @@ import com.aurora.adroid.R;
 import com.aurora.adroid.manager.FavouritesManager;
 import com.aurora.adroid.model.App;
 import com.aurora.adroid.model.items.FavouriteItem;
-import com.aurora.adroid.task.LiveUpdate;
+import com.aurora.adroid.task.UpdateOrchestrator;
 import com.aurora.adroid.ui.details.DetailsActivity;
 import com.aurora.adroid.ui.view.ViewFlipper2;
 import com.aurora.adroid.util.ImageUtil;
-import com.aurora.adroid.util.LocalizationUtil;
 import com.aurora.adroid.util.Log;
 import com.aurora.adroid.util.PackageUtil;
 import com.aurora.adroid.util.PathUtil;
@@ -177,14 +175,7 @@ public class FavouriteFragment extends BaseFragment implements SimpleSwipeCallba
     }
 
     private void initDownload() {
-        Context context = requireContext();
-        for (App app : selectedAppSet) {
-            try {
-                new LiveUpdate(context, app).enqueueUpdate();
-            } catch (Exception e) {
-                Log.e("Failed to download : %s", LocalizationUtil.getLocalizedName(context, app));
-            }
-        }
+        UpdateOrchestrator.getInstance(requireContext()).enqueue(new ArrayList<>(selectedAppSet));
     }
 
     private void dispatchToAdapter(List<FavouriteItem> favouriteItems) {
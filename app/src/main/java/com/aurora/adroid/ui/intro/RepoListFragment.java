@@ -93,7 +93,7 @@ public class RepoListFragment extends BaseFragment implements ItemTouchCallback,
 
         navController = NavHostFragment.findNavController(this);
         repoListManager = new RepoListManager(requireContext());
-        repoSyncManager = new RepoSyncManager(requireContext());
+        repoSyncManager = RepoSyncManager.getInstance(requireContext());
 
         setupRecycler();
 
@@ -119,7 +119,7 @@ public class HomeFragment extends Fragment {
 
         IndexModel indexModel = new ViewModelProvider(requireActivity()).get(IndexModel.class);
         indexModel.getAllIndicesLive().observe(getViewLifecycleOwner(), indices -> {
-            final RepoSyncManager repoSyncManager = new RepoSyncManager(requireContext());
+            final RepoSyncManager repoSyncManager = RepoSyncManager.getInstance(requireContext());
             disposable.add(Observable.fromIterable(indices)
                     .filter(index -> repoSyncManager.isSynced(index.getRepoId()))
                     .map(RepoItem::new)
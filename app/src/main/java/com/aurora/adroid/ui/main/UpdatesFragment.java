@@ -38,7 +38,6 @@ import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 import com.aurora.adroid.AuroraApplication;
 import com.aurora.adroid.Constants;
 import com.aurora.adroid.R;
-import com.aurora.adroid.download.DownloadManager;
 import com.aurora.adroid.model.App;
 import com.aurora.adroid.model.items.UpdatesItem;
 import com.aurora.adroid.ui.details.DetailsActivity;
@@ -52,14 +51,8 @@ import com.google.android.material.button.MaterialButton;
 import com.mikepenz.fastadapter.FastAdapter;
 import com.mikepenz.fastadapter.adapters.ItemAdapter;
 import com.mikepenz.fastadapter.select.SelectExtension;
-import com.tonyodev.fetch2.AbstractFetchGroupListener;
-import com.tonyodev.fetch2.Download;
-import com.tonyodev.fetch2.Fetch;
-import com.tonyodev.fetch2.FetchGroup;
-import com.tonyodev.fetch2.FetchListener;
 
 import org.apache.commons.lang3.StringUtils;
-import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -83,7 +76,6 @@ public class UpdatesFragment extends BaseFragment {
     @BindView(R.id.btn_action)
     MaterialButton btnAction;
 
-    private Fetch fetch;
     private Set<UpdatesItem> selectedItems = new HashSet<>();
 
     private UpdatesViewModel model;
@@ -103,7 +95,6 @@ public class UpdatesFragment extends BaseFragment {
     @Override
     public void onActivityCreated(@Nullable Bundle savedInstanceState) {
         super.onActivityCreated(savedInstanceState);
-        fetch = DownloadManager.getFetchInstance(requireContext());
         setupRecycler();
 
         model = new ViewModelProvider(requireActivity()).get(UpdatesViewModel.class);
@@ -130,6 +121,10 @@ public class UpdatesFragment extends BaseFragment {
                         case BULK_UPDATE_NOTIFY:
                             updatePageData();
                             break;
+                        case BULK_UPDATE_PROGRESS:
+                            if (AuroraApplication.isBulkUpdateAlive())
+                                txtUpdateAll.setText(event.getStringExtra());
+                            break;
                         case WHITELIST:
                             //TODO:Check for update and add app to list if update is available
                             break;
@@ -263,50 +258,11 @@ public class UpdatesFragment extends BaseFragment {
         }
     }
 
-    private void attachFetchCancelListener() {
-        boolean selectiveUpdate = selectExtension.getSelectedItems().size() > 0;
-        Observable.fromIterable(selectiveUpdate
-                ? selectedItems
-                : itemAdapter.getAdapterItems())
-                .map(updatesItem -> updatesItem.getPackageName().hashCode())
-                .doOnNext(hashcode -> {
-                    final FetchListener fetchListener = new AbstractFetchGroupListener() {
-                        @Override
-                        public void onAdded(int groupId, @NotNull Download download, @NotNull FetchGroup fetchGroup) {
-                            super.onAdded(groupId, download, fetchGroup);
-                            if (hashcode == groupId) {
-                                fetch.cancelGroup(groupId);
-                                fetch.removeListener(this);
-                            }
-                        }
-
-                        @Override
-                        public void onProgress(int groupId, @NotNull Download download, long etaInMilliSeconds, long downloadedBytesPerSecond, @NotNull FetchGroup fetchGroup) {
-                            super.onProgress(groupId, download, etaInMilliSeconds, downloadedBytesPerSecond, fetchGroup);
-                            if (hashcode == groupId) {
-                                fetch.cancelGroup(groupId);
-                                fetch.removeListener(this);
-                            }
-                        }
-
-                        @Override
-                        public void onQueued(int groupId, @NotNull Download download, boolean waitingNetwork, @NotNull FetchGroup fetchGroup) {
-                            super.onQueued(groupId, download, waitingNetwork, fetchGroup);
-                            if (hashcode == groupId) {
-                                fetch.cancelGroup(groupId);
-                                fetch.removeListener(this);
-                            }
-                        }
-                    };
-                    fetch.addListener(fetchListener);
-                })
-                .doOnComplete(() -> {
-                    //Clear ongoing update list
-                    AuroraApplication.setOngoingUpdateList(new ArrayList<>());
-                    //Start BulkUpdate cancellation request
-                    Util.stopBulkUpdateService(requireContext());
-                })
-                .subscribe();
+    private void cancelBulkUpdate() {
+        //Clear ongoing update list
+        AuroraApplication.setOngoingUpdateList(new ArrayList<>());
+        //Stopping the service cancels the downloads it still owns
+        Util.stopBulkUpdateService(requireContext());
     }
 
     private void updateButtonActions() {
@@ -315,7 +271,7 @@ public class UpdatesFragment extends BaseFragment {
         if (AuroraApplication.isBulkUpdateAlive()) {
             btnAction.setText(getString(R.string.action_cancel));
             btnAction.setOnClickListener(v -> {
-                attachFetchCancelListener();
+                cancelBulkUpdate();
                 btnAction.setEnabled(false);
             });
         } else {
@@ -25,22 +25,25 @@ import android.content.pm.PackageInfo;
 import android.content.pm.PackageManager;
 import android.content.pm.PackageManager.NameNotFoundException;
 
+import com.aurora.adroid.manager.SignerCache;
+
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
-import java.math.BigInteger;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.cert.CertificateEncodingException;
 import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
 import java.security.cert.X509Certificate;
-import java.util.Locale;
 
 public final class CertUtil {
 
     private static final String FDROID = "FDROID";
     private static final String GUARDIAN = "GUARDIANPROJECT.INFO";
 
+    private static final char[] HEX_DIGITS_UPPER = "0123456789ABCDEF".toCharArray();
+    private static final char[] HEX_DIGITS_LOWER = "0123456789abcdef".toCharArray();
+
     private static CertificateFactory certificateFactory;
 
     private static X509Certificate[] getX509Certificates(Context context, String packageName) {
@@ -79,11 +82,27 @@ public final class CertUtil {
 
     public static String getSHA256(Context context, String packageName) {
         try {
-            X509Certificate[] certs = CertUtil.getX509Certificates(context, packageName);
+            return getSHA256(context, context.getPackageManager().getPackageInfo(packageName, 0));
+        } catch (NameNotFoundException e) {
+            return "";
+        }
+    }
+
+    //Certificates are parsed and hashed only when the app changed since the fingerprint was cached
+    public static String getSHA256(Context context, PackageInfo packageInfo) {
+        final SignerCache signerCache = SignerCache.getInstance(context);
+        final String cachedFingerprint = signerCache.get(packageInfo);
+        if (cachedFingerprint != null)
+            return cachedFingerprint;
+
+        try {
+            X509Certificate[] certs = CertUtil.getX509Certificates(context, packageInfo.packageName);
             if (certs == null || certs.length < 1)
                 return "";
-            X509Certificate cert = certs[0];
-            return getCertificateFingerprint(cert, "SHA-256").toLowerCase(Locale.ENGLISH);
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            final String fingerprint = toHexString(md.digest(certs[0].getEncoded()), HEX_DIGITS_LOWER);
+            signerCache.put(packageInfo, fingerprint);
+            return fingerprint;
         } catch (Exception e) {
             return "";
         }
@@ -107,8 +126,17 @@ public final class CertUtil {
     }
 
     public static String toHexString(byte[] bytes) {
-        BigInteger bi = new BigInteger(1, bytes);
-        return String.format("%0" + (bytes.length << 1) + "X", bi);
+        return toHexString(bytes, HEX_DIGITS_UPPER);
+    }
+
+    private static String toHexString(byte[] bytes, char[] digits) {
+        final char[] chars = new char[bytes.length << 1];
+        for (int i = 0; i < bytes.length; i++) {
+            final int value = bytes[i] & 0xFF;
+            chars[i << 1] = digits[value >>> 4];
+            chars[(i << 1) + 1] = digits[value & 0x0F];
+        }
+        return new String(chars);
     }
 }
 
@@ -22,6 +22,7 @@ package com.aurora.adroid.util;
 import android.content.Context;
 
 import com.aurora.adroid.Constants;
+import com.aurora.adroid.download.MirrorSelector;
 import com.aurora.adroid.model.App;
 import com.aurora.adroid.model.Package;
 
@@ -63,14 +64,16 @@ public class DatabaseUtil {
     }
 
     public static String getImageUrl(App app) {
+        if (app.getDisplayIcon() != null)
+            return app.getRepoUrl() + "/" + app.getDisplayIcon();
         return app.getRepoUrl() + Constants.IMG_URL_PREFIX + app.getIcon();
     }
 
     public static String getDownloadURl(App app) {
-        return app.getRepoUrl() + "/" + app.getPkg().getApkName();
+        return MirrorSelector.getInstance().select(app.getRepoId(), app.getRepoUrl()) + "/" + app.getPkg().getApkName();
     }
 
     public static String getDownloadURl(App app, Package pkg) {
-        return app.getRepoUrl() + "/" + pkg.getApkName();
+        return MirrorSelector.getInstance().select(app.getRepoId(), app.getRepoUrl()) + "/" + pkg.getApkName();
     }
 }
@@ -21,6 +21,7 @@ package com.aurora.adroid.util;
 
 import android.content.Context;
 
+import com.aurora.adroid.Constants;
 import com.aurora.adroid.R;
 import com.aurora.adroid.model.App;
 import com.aurora.adroid.model.v2.Localization;
@@ -31,6 +32,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 public abstract class LocalizationUtil {
 
@@ -46,8 +48,86 @@ public abstract class LocalizationUtil {
         return localization;
     }
 
+    public static List<String> getLocaleChain(Locale locale) {
+        final List<String> localeChain = new ArrayList<>(4);
+        if (StringUtils.isNotEmpty(locale.getCountry()))
+            localeChain.add(locale.getLanguage() + "-" + locale.getCountry());
+        localeChain.add(locale.getLanguage());
+        if (!localeChain.contains("en-US"))
+            localeChain.add("en-US");
+        if (!localeChain.contains("en"))
+            localeChain.add("en");
+        return localeChain;
+    }
+
+    //Stores name, summary and icon path for the given locale chain so list rows never walk the map
+    public static void resolveDisplayFields(App app, List<String> localeChain) {
+        String name = null;
+        String summary = null;
+        String icon = null;
+
+        final HashMap<String, Localization> localizationHashMap = app.getLocalizationMap();
+        if (localizationHashMap != null) {
+            for (String localeKey : localeChain) {
+                final Localization localization = localizationHashMap.get(localeKey);
+                if (localization == null)
+                    continue;
+                if (name == null)
+                    name = localization.getName();
+                if (summary == null)
+                    summary = localization.getSummary();
+                if (icon == null && localization.getIcon() != null)
+                    icon = app.getPackageName() + "/" + localeKey + "/" + localization.getIcon();
+            }
+        }
+
+        if (icon == null && app.getIcon() != null)
+            icon = Constants.IMG_URL_PREFIX.substring(1) + app.getIcon();
+
+        app.setDisplayName(name != null ? name : app.getName());
+        app.setDisplaySummary(summary != null ? summary : app.getSummary());
+        app.setDisplayIcon(icon);
+    }
+
+    //Description of the first locale in the chain that has one, the untranslated one otherwise
+    public static String resolveDescription(String description, HashMap<String, Localization> localizationHashMap,
+                                            List<String> localeChain) {
+        if (localizationHashMap != null) {
+            for (String localeKey : localeChain) {
+                final Localization localization = localizationHashMap.get(localeKey);
+                if (localization != null && localization.getDescription() != null)
+                    return localization.getDescription();
+            }
+        }
+        return description;
+    }
+
+    //Keeps what list rows show, description and screenshots are left to AppDetail
+    public static HashMap<String, Localization> stripLocalizationMap(HashMap<String, Localization> localizationHashMap) {
+        if (localizationHashMap == null)
+            return null;
+
+        final HashMap<String, Localization> strippedMap = new HashMap<>();
+        for (Map.Entry<String, Localization> entry : localizationHashMap.entrySet()) {
+            final Localization localization = entry.getValue();
+            if (localization == null)
+                continue;
+
+            final Localization stripped = new Localization();
+            stripped.setName(localization.getName());
+            stripped.setSummary(localization.getSummary());
+            stripped.setIcon(localization.getIcon());
+            stripped.setChangelog(localization.getChangelog());
+            strippedMap.put(entry.getKey(), stripped);
+        }
+        return strippedMap;
+    }
+
     public static String getLocalizedName(Context context, App app) {
 
+        if (app.getDisplayName() != null)
+            return app.getDisplayName();
+
         HashMap<String, Localization> localizationHashMap = app.getLocalizationMap();
 
         if (localizationHashMap != null) {
@@ -70,6 +150,9 @@ public abstract class LocalizationUtil {
 
     public static String getLocalizedSummary(Context context, App app) {
 
+        if (app.getDisplaySummary() != null)
+            return app.getDisplaySummary();
+
         HashMap<String, Localization> localizationHashMap = app.getLocalizationMap();
 
         if (localizationHashMap != null) {
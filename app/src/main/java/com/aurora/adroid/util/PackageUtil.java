@@ -32,8 +32,13 @@ import androidx.annotation.Nullable;
 import com.aurora.adroid.model.App;
 import com.aurora.adroid.model.Package;
 
+import org.apache.commons.lang3.math.NumberUtils;
+
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class PackageUtil {
 
@@ -42,6 +47,7 @@ public class PackageUtil {
     private static final String ACTION_UNINSTALL_PACKAGE_FAILED = "ACTION_UNINSTALL_PACKAGE_FAILED";
 
     private static final List<String> archList = new ArrayList<>();
+    private static final Set<String> supportedAbis = new HashSet<>(Arrays.asList(Build.SUPPORTED_ABIS));
 
     static {
         archList.add("arm64-v8a");
@@ -81,22 +87,26 @@ public class PackageUtil {
 
     public static App getAppFromPackageName(PackageManager packageManager, String packageName, boolean extended) {
         try {
-            final App app = new App();
             final PackageInfo packageInfo = packageManager.getPackageInfo(packageName, PackageManager.GET_META_DATA);
-            app.setPackageName(packageName);
-            app.setName(packageManager.getApplicationLabel(packageInfo.applicationInfo).toString());
-            app.setSuggestedVersionName(packageInfo.versionName);
-            app.setSuggestedVersionCode(packageInfo.versionCode);
-            if (extended) {
-                app.setSystemApp((packageInfo.applicationInfo.flags & ApplicationInfo.FLAG_SYSTEM) != 0);
-                app.setIconDrawable(packageManager.getApplicationIcon(packageName));
-            }
-            return app;
+            return getAppFromPackageInfo(packageManager, packageInfo, extended);
         } catch (PackageManager.NameNotFoundException e) {
             return null;
         }
     }
 
+    public static App getAppFromPackageInfo(PackageManager packageManager, PackageInfo packageInfo, boolean extended) {
+        final App app = new App();
+        app.setPackageName(packageInfo.packageName);
+        app.setName(packageManager.getApplicationLabel(packageInfo.applicationInfo).toString());
+        app.setSuggestedVersionName(packageInfo.versionName);
+        app.setSuggestedVersionCode(packageInfo.versionCode);
+        if (extended) {
+            app.setSystemApp((packageInfo.applicationInfo.flags & ApplicationInfo.FLAG_SYSTEM) != 0);
+            app.setIconDrawable(packageManager.getApplicationIcon(packageInfo.applicationInfo));
+        }
+        return app;
+    }
+
     public static boolean isArchSpecificPackage(Package pkg) {
         if (pkg.getNativecode() == null)
             return false;
@@ -113,22 +123,50 @@ public class PackageUtil {
     }
 
     public static boolean compatibleApi(@Nullable List<String> nativecode) {
-        final String[] supportedAbis = Build.SUPPORTED_ABIS;
-
         if (nativecode == null) {
             return true;
         }
 
-        for (final String cpuAbi : supportedAbis) {
-            for (String code : nativecode) {
-                if (code.equals(cpuAbi)) {
-                    return true;
-                }
+        for (String code : nativecode) {
+            if (supportedAbis.contains(code)) {
+                return true;
             }
         }
         return false;
     }
 
+    public static boolean compatibleSdk(Package pkg) {
+        final int minSdk = NumberUtils.toInt(pkg.getMinSdkVersion(), 0);
+        final int maxSdk = NumberUtils.toInt(pkg.getMaxSdkVersion(), Integer.MAX_VALUE);
+        return Build.VERSION.SDK_INT >= minSdk && Build.VERSION.SDK_INT <= maxSdk;
+    }
+
+    //Marks every package for this device, returns the newest compatible one or null
+    public static Package markBestCompatiblePackage(List<Package> packageList) {
+        Package bestPackage = null;
+        if (packageList == null)
+            return null;
+        for (Package pkg : packageList) {
+            pkg.setCompatible(compatibleApi(pkg.getNativecode()) && compatibleSdk(pkg));
+            if (pkg.isCompatible() && pkg.getVersionCode() != null
+                    && (bestPackage == null || pkg.getVersionCode() > bestPackage.getVersionCode()))
+                bestPackage = pkg;
+        }
+        return bestPackage;
+    }
+
+    //Changes whenever a version is added, archived or its apk replaced, lastUpdated of the app may not
+    public static long getPackageFingerprint(List<Package> packageList) {
+        long fingerprint = 1;
+        if (packageList == null)
+            return fingerprint;
+        for (Package pkg : packageList) {
+            fingerprint = 31 * fingerprint + (pkg.getVersionCode() == null ? 0 : pkg.getVersionCode());
+            fingerprint = 31 * fingerprint + (pkg.getHash() == null ? 0 : pkg.getHash().hashCode());
+        }
+        return fingerprint;
+    }
+
     public static List<Package> markCompatiblePackages(List<Package> packageList, String signer, boolean verifySigner) {
 
         final List<Package> packages = new ArrayList<>();
@@ -148,10 +186,8 @@ public class PackageUtil {
         if (packages.isEmpty())
             return null;
 
-        for (Package pkg : packages) {
-            pkg.setCompatible(compatibleApi(pkg.getNativecode()));
-            compatiblePackages.add(pkg);
-        }
+        //Compatibility was stored with the package at ingestion
+        compatiblePackages.addAll(packages);
 
         return compatiblePackages;
     }
@@ -192,6 +228,7 @@ public class PackageUtil {
         filter.addAction(Intent.ACTION_PACKAGE_INSTALL);
         filter.addAction(Intent.ACTION_PACKAGE_ADDED);
         filter.addAction(Intent.ACTION_PACKAGE_REMOVED);
+        filter.addAction(Intent.ACTION_PACKAGE_CHANGED);
         return filter;
     }
 }
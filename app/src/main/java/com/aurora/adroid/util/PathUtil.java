@@ -36,6 +36,13 @@ public class PathUtil {
         return dir.getPath() + "/";
     }
 
+    public static String getIndexCacheDirectory(Context context) {
+        final File dir = new File(context.getFilesDir().getPath() + "/index-cache/");
+        if (!dir.exists())
+            dir.mkdir();
+        return dir.getPath() + "/";
+    }
+
     static public String getRootApkPath(Context context) {
         if (isCustomPath(context))
             return PrefUtil.getString(context, Constants.PREFERENCE_DOWNLOAD_DIRECTORY);
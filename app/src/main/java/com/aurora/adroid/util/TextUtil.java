@@ -32,4 +32,17 @@ public class TextUtil {
         string = string.replaceAll("[\\W\\s]", "");
         return string;
     }
+
+    //Every word of the query has to prefix-match some indexed column
+    public static String toFtsQuery(String query) {
+        final StringBuilder builder = new StringBuilder();
+        for (String token : query.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (token.isEmpty())
+                continue;
+            if (builder.length() > 0)
+                builder.append(' ');
+            builder.append(token).append('*');
+        }
+        return builder.toString();
+    }
 }
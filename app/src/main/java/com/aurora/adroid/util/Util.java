@@ -63,6 +63,7 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
+import java.util.TimeZone;
 
 public class Util {
 
@@ -203,6 +204,12 @@ public class Util {
         return Default;
     }
 
+    public static String getHttpDate(long millis) {
+        final SimpleDateFormat dateFormat = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US);
+        dateFormat.setTimeZone(TimeZone.getTimeZone("GMT"));
+        return dateFormat.format(new Date(millis));
+    }
+
     public static boolean isFirstLaunch(Context context) {
         boolean first = getPrefs(context).getBoolean(Constants.PREFERENCE_FIRST_LAUNCH_2, true);
         PrefUtil.putBoolean(context, Constants.PREFERENCE_FIRST_LAUNCH_2, false);
@@ -299,6 +306,10 @@ public class Util {
         return getPrefs(context).getInt(Constants.PREFERENCE_DOWNLOAD_ACTIVE, 3);
     }
 
+    public static int getActiveRepoSyncCount(Context context) {
+        return Math.max(1, getPrefs(context).getInt(Constants.PREFERENCE_REPO_SYNC_ACTIVE, 3));
+    }
+
     public static String getInstallationProfile(Context context) {
         if (!Util.isRootInstallEnabled(context))
             return "0";
@@ -22,15 +22,17 @@ package com.aurora.adroid.viewmodel;
 import android.app.Application;
 import android.content.pm.ApplicationInfo;
 import android.content.pm.PackageInfo;
-import android.content.pm.PackageManager;
 
 import androidx.annotation.NonNull;
 import androidx.lifecycle.AndroidViewModel;
 
 import com.aurora.adroid.manager.BlacklistManager;
+import com.aurora.adroid.manager.InstalledPackages;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import io.reactivex.disposables.CompositeDisposable;
 
@@ -49,25 +51,38 @@ public class BaseViewModel extends AndroidViewModel {
     }
 
     public List<String> getInstalledPackages(boolean includeSystem) {
-        List<String> packageList = new ArrayList<>();
-        PackageManager packageManager = getApplication().getPackageManager();
-
-        for (PackageInfo packageInfo : packageManager.getInstalledPackages(PackageManager.GET_META_DATA)) {
-            final String packageName = packageInfo.packageName;
+        return getInstalledPackages(InstalledPackages.getInstance(getApplication()).getSnapshot(), includeSystem);
+    }
 
-            if (packageName == null || packageInfo.applicationInfo == null)
-                continue;
+    //Filters the given snapshot, so names and their PackageInfo always come from the same map
+    public List<String> getInstalledPackages(Map<String, PackageInfo> packageInfoMap, boolean includeSystem) {
+        List<String> packageList = new ArrayList<>();
 
+        for (PackageInfo packageInfo : packageInfoMap.values()) {
             if (!packageInfo.applicationInfo.enabled
                     || ((packageInfo.applicationInfo.flags & ApplicationInfo.FLAG_SYSTEM) != 0)
                     && !includeSystem) //Filter System-Apps
                 continue;
 
-            packageList.add(packageName);
+            packageList.add(packageInfo.packageName);
         }
         return packageList;
     }
 
+    public Map<String, PackageInfo> getInstalledPackageMap() {
+        final Map<String, PackageInfo> packageInfoMap = new HashMap<>();
+
+        for (PackageInfo packageInfo : InstalledPackages.getInstance(getApplication()).getSnapshot().values()) {
+            if (packageInfo.applicationInfo.enabled)
+                packageInfoMap.put(packageInfo.packageName, packageInfo);
+        }
+
+        for (String packageName : new BlacklistManager(getApplication()).getBlacklistedPackages()) {
+            packageInfoMap.remove(packageName);
+        }
+        return packageInfoMap;
+    }
+
     public List<String> filterBlacklistedApps(List<String> packageList) {
         packageList.removeAll(new BlacklistManager(getApplication()).getBlacklistedPackages());
         return packageList;
@@ -27,6 +27,7 @@ import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 
 import com.aurora.adroid.manager.BlacklistManager;
+import com.aurora.adroid.manager.InstalledPackages;
 import com.aurora.adroid.model.items.BlacklistItem;
 import com.aurora.adroid.util.PackageUtil;
 
@@ -36,11 +37,12 @@ import java.util.Set;
 
 import io.reactivex.Observable;
 import io.reactivex.android.schedulers.AndroidSchedulers;
-import io.reactivex.schedulers.Schedulers;
+import io.reactivex.disposables.Disposable;
 
 public class BlackListedAppsModel extends BaseViewModel {
 
     private MutableLiveData<List<BlacklistItem>> data = new MutableLiveData<>();
+    private Disposable blacklistDisposable;
 
     public BlackListedAppsModel(@NonNull Application application) {
         super(application);
@@ -57,10 +59,13 @@ public class BlackListedAppsModel extends BaseViewModel {
     public void fetchBlackListedApps(Set<String> packageNames) {
         PackageManager packageManager = getApplication().getPackageManager();
         BlacklistManager blacklistManager = new BlacklistManager(getApplication());
-        disposable.add(Observable.fromCallable(() -> getInstalledPackages(true))
-                .subscribeOn(Schedulers.io())
-                .flatMap(stringList -> Observable.fromIterable(stringList)
-                        .map(s -> PackageUtil.getAppFromPackageName(packageManager, s, true))
+        if (blacklistDisposable != null)
+            disposable.remove(blacklistDisposable);
+
+        blacklistDisposable = InstalledPackages.getInstance(getApplication())
+                .observe()
+                .switchMapSingle(packageInfoMap -> Observable.fromIterable(getInstalledPackages(packageInfoMap, true))
+                        .map(s -> PackageUtil.getAppFromPackageInfo(packageManager, packageInfoMap.get(s), true))
                         .map(app -> {
                             BlacklistItem blacklistItem = new BlacklistItem(app);
                             blacklistItem.setSelected(blacklistManager.isBlacklisted(app.getPackageName()));
@@ -70,10 +75,11 @@ public class BlackListedAppsModel extends BaseViewModel {
                                 blacklistItem.setSelected(true);
 
                             return blacklistItem;
-                        }))
-                .toList()
+                        })
+                        .toList())
                 .observeOn(AndroidSchedulers.mainThread())
-                .subscribe(blacklistItems -> data.setValue(blacklistItems), Throwable::printStackTrace));
+                .subscribe(blacklistItems -> data.setValue(blacklistItems), Throwable::printStackTrace);
+        disposable.add(blacklistDisposable);
     }
 
     @Override
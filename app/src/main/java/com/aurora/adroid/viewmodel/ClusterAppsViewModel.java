@@ -22,21 +22,17 @@ package com.aurora.adroid.viewmodel;
 import android.app.Application;
 
 import androidx.annotation.NonNull;
-import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 
-import com.aurora.adroid.database.AppRepository;
+import com.aurora.adroid.database.AppQuery;
 import com.aurora.adroid.model.App;
 
 import java.util.List;
 
-public class ClusterAppsViewModel extends AndroidViewModel {
-
-    private AppRepository appRepository;
+public class ClusterAppsViewModel extends PagedAppsViewModel {
 
     public ClusterAppsViewModel(@NonNull Application application) {
         super(application);
-        appRepository = new AppRepository(application);
     }
 
     public LiveData<List<App>> getNewAppsLiveData() {
@@ -51,11 +47,23 @@ public class ClusterAppsViewModel extends AndroidViewModel {
         return appRepository.getAllAppsByCategory(category);
     }
 
-    public LiveData<List<App>> getRepoAppsLiveData(String repoId) {
-        return appRepository.getAllAppsByRepositoryId(repoId);
-    }
-
     public LiveData<List<App>> getAuthorAppsLiveData(String authorName) {
         return appRepository.getAllAppsByDeveloper(authorName);
     }
+
+    public void loadNewApps() {
+        setQuery(AppQuery.newApps(System.currentTimeMillis(), 14));
+    }
+
+    public void loadUpdatedApps() {
+        setQuery(AppQuery.updatedApps(System.currentTimeMillis(), 14));
+    }
+
+    public void loadCategoryApps(String category) {
+        setQuery(AppQuery.category(category));
+    }
+
+    public void loadRepoApps(String repoId) {
+        setQuery(AppQuery.repository(repoId));
+    }
 }
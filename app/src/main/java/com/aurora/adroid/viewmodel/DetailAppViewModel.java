@@ -30,6 +30,7 @@ import com.aurora.adroid.database.AppPackageRepository;
 import com.aurora.adroid.database.AppRepository;
 import com.aurora.adroid.model.App;
 import com.aurora.adroid.model.Package;
+import com.aurora.adroid.model.v2.AppDetail;
 import com.aurora.adroid.model.v2.AppPackage;
 import com.aurora.adroid.util.PackageUtil;
 
@@ -64,13 +65,20 @@ public class DetailAppViewModel extends AndroidViewModel {
                 ? appRepository.getAppByPackageName(packageName)
                 : appRepository.getAppByPackageNameAndRepo(packageName, repoName))
                 .map(app -> {
+                    final AppDetail appDetail = appRepository.getAppDetail(app.getPackageName(), app.getRepoId());
+                    if (appDetail != null) {
+                        app.setDescription(appDetail.getDescription());
+                        app.setLocalizationMap(appDetail.getLocalizationMap());
+                    }
+
                     final AppPackage appPackage = appPackageRepository.getAppPackage(app.getPackageName(), app.getRepoId());
                     final List<Package> packageList = PackageUtil.markCompatiblePackages(appPackage.getPackageList(), "", false);
 
                     appPackage.setPackageList(packageList);
                     app.setInstalled(PackageUtil.isInstalled(getApplication(),app.getPackageName()));
                     app.setAppPackage(appPackage);
-                    app.setPkg(appPackage.getPackageList().get(0)); /*Fallback Package*/
+                    if (app.getPkg() == null)
+                        app.setPkg(appPackage.getPackageList().get(0)); /*Fallback Package*/
 
                     if (PackageUtil.isInstalled(getApplication(), app.getPackageName())) {
                         PackageInfo packageInfo = PackageUtil.getPackageInfo(getApplication().getPackageManager(), app.getPackageName());
@@ -25,17 +25,16 @@ import androidx.annotation.NonNull;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 
-import com.aurora.adroid.database.AppPackageRepository;
 import com.aurora.adroid.database.AppRepository;
 import com.aurora.adroid.manager.FavouritesManager;
 import com.aurora.adroid.model.App;
-import com.aurora.adroid.model.Package;
 import com.aurora.adroid.model.items.FavouriteItem;
-import com.aurora.adroid.model.v2.AppPackage;
 import com.aurora.adroid.util.PackageUtil;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import io.reactivex.Observable;
 import io.reactivex.android.schedulers.AndroidSchedulers;
@@ -45,14 +44,12 @@ public class FavouriteAppsModel extends BaseViewModel {
 
 
     private AppRepository appRepository;
-    private AppPackageRepository appPackageRepository;
 
     private MutableLiveData<List<FavouriteItem>> data = new MutableLiveData<>();
 
     public FavouriteAppsModel(@NonNull Application application) {
         super(application);
         appRepository = new AppRepository(application);
-        appPackageRepository = new AppPackageRepository(application);
     }
 
     public LiveData<List<FavouriteItem>> getFavouriteApps() {
@@ -73,27 +70,29 @@ public class FavouriteAppsModel extends BaseViewModel {
         disposable.add(Observable.fromCallable(() -> favApps)
                 .subscribeOn(Schedulers.io())
                 .map(appList -> {
+                    //Favourites only keep packageName and repoId, rows are read in one query
+                    final Map<String, String> repoIdMap = new HashMap<>();
+                    for (App app : appList)
+                        repoIdMap.put(app.getPackageName(), app.getRepoId());
+
+                    //Row from the favourite's own repo wins, any other repo is the fallback
+                    final Map<String, App> appMap = new HashMap<>();
+                    for (App app : appRepository.getAppsByPackageNames(new ArrayList<>(repoIdMap.keySet()))) {
+                        if (!appMap.containsKey(app.getPackageName())
+                                || app.getRepoId().equals(repoIdMap.get(app.getPackageName())))
+                            appMap.put(app.getPackageName(), app);
+                    }
+
                     List<App> processedAppList = new ArrayList<>();
-                    for (App app : appList) {
-                        if (appRepository.isAvailable(app.getPackageName())) {
-
-                            final AppPackage appPackage = appPackageRepository.getAppPackage(app.getPackageName(), app.getRepoId());
-
-                            //Get all packages in the app-package
-                            List<Package> packageList = appPackage.getPackageList();
-                            List<Package> compatiblePackages = new ArrayList<>();
-
-                            if (packageList != null && !packageList.isEmpty()) {
-                                //Find best matching app package for the app
-                                compatiblePackages = PackageUtil.markCompatiblePackages(packageList, null, true);
-                                if (compatiblePackages != null) {
-                                    app.setPkg(compatiblePackages.get(0));
-                                }
-
-                                app.setInstalled(PackageUtil.isInstalled(getApplication(), app.getPackageName()));
-                                processedAppList.add(app);
-                            }
-                        }
+                    for (App favouriteApp : appList) {
+                        final App app = appMap.get(favouriteApp.getPackageName());
+
+                        //Rows carry the newest compatible package since the last sync, none means nothing this device can run
+                        if (app == null || app.getPkg() == null)
+                            continue;
+
+                        app.setInstalled(PackageUtil.isInstalled(getApplication(), app.getPackageName()));
+                        processedAppList.add(app);
                     }
                     return processedAppList;
                 })
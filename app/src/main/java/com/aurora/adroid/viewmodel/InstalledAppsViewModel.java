@@ -28,6 +28,7 @@ import androidx.lifecycle.MutableLiveData;
 
 import com.aurora.adroid.Constants;
 import com.aurora.adroid.database.AppRepository;
+import com.aurora.adroid.manager.InstalledPackages;
 import com.aurora.adroid.model.items.InstalledItem;
 import com.aurora.adroid.util.PackageUtil;
 import com.aurora.adroid.util.PrefUtil;
@@ -37,13 +38,14 @@ import java.util.List;
 
 import io.reactivex.Observable;
 import io.reactivex.android.schedulers.AndroidSchedulers;
-import io.reactivex.schedulers.Schedulers;
+import io.reactivex.disposables.Disposable;
 
 public class InstalledAppsViewModel extends BaseViewModel implements SharedPreferences.OnSharedPreferenceChangeListener {
 
     private AppRepository appRepository;
     private boolean userOnly;
     private SharedPreferences sharedPreferences;
+    private Disposable installedDisposable;
 
     private MutableLiveData<List<InstalledItem>> data = new MutableLiveData<>();
 
@@ -64,16 +66,21 @@ public class InstalledAppsViewModel extends BaseViewModel implements SharedPrefe
 
     public void fetchInstalledApps(boolean userOnly) {
         PackageManager packageManager = getApplication().getPackageManager();
-        disposable.add(Observable.fromCallable(() -> getInstalledPackages(!userOnly))
-                .subscribeOn(Schedulers.io())
-                .flatMap(packageNames -> Observable.fromIterable(packageNames)
+        if (installedDisposable != null)
+            disposable.remove(installedDisposable);
+
+        //Rebuilt from every new snapshot, so installs and removals show up without a manual refresh
+        installedDisposable = InstalledPackages.getInstance(getApplication())
+                .observe()
+                .switchMapSingle(packageInfoMap -> Observable.fromIterable(getInstalledPackages(packageInfoMap, !userOnly))
                         .filter(packageName -> appRepository.isAvailable(packageName))
-                        .map(packageName -> PackageUtil.getAppFromPackageName(packageManager, packageName, true))
+                        .map(packageName -> PackageUtil.getAppFromPackageInfo(packageManager, packageInfoMap.get(packageName), true))
                         .sorted((o1, o2) -> o1.getName().compareToIgnoreCase(o2.getName()))
-                        .map(InstalledItem::new))
-                .toList()
+                        .map(InstalledItem::new)
+                        .toList())
                 .observeOn(AndroidSchedulers.mainThread())
-                .subscribe(installedItems -> data.setValue(installedItems), Throwable::printStackTrace));
+                .subscribe(installedItems -> data.setValue(installedItems), Throwable::printStackTrace);
+        disposable.add(installedDisposable);
     }
 
     @Override
@@ -0,0 +1,87 @@
+/*
+ * Aurora Droid
+ * Copyright (C) 2019-20, Rahul Kumar Patel <whyorean@gmail.com>
+ *
+ * Aurora Droid is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Aurora Droid is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Aurora Droid.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.aurora.adroid.viewmodel;
+
+import android.app.Application;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Transformations;
+import androidx.paging.LivePagedListBuilder;
+import androidx.paging.PagedList;
+
+import com.aurora.adroid.Sort;
+import com.aurora.adroid.database.AppQuery;
+import com.aurora.adroid.database.AppRepository;
+import com.aurora.adroid.model.App;
+
+import org.apache.commons.lang3.StringUtils;
+
+public class PagedAppsViewModel extends AndroidViewModel {
+
+    private static final int PAGE_SIZE = 30;
+
+    protected AppRepository appRepository;
+
+    private MutableLiveData<AppQuery> queryLiveData = new MutableLiveData<>();
+    private LiveData<PagedList<App>> pagedAppsLiveData;
+
+    public PagedAppsViewModel(@NonNull Application application) {
+        super(application);
+        appRepository = new AppRepository(application);
+
+        final PagedList.Config config = new PagedList.Config.Builder()
+                .setPageSize(PAGE_SIZE)
+                .setInitialLoadSizeHint(PAGE_SIZE * 2)
+                .setEnablePlaceholders(false)
+                .build();
+
+        pagedAppsLiveData = Transformations.switchMap(queryLiveData, query ->
+                new LivePagedListBuilder<>(appRepository.getPagedApps(query), config).build());
+    }
+
+    public LiveData<PagedList<App>> getPagedAppsLiveData() {
+        return pagedAppsLiveData;
+    }
+
+    public void setQuery(AppQuery query) {
+        queryLiveData.setValue(query);
+    }
+
+    public void setSort(Sort sort) {
+        final AppQuery query = queryLiveData.getValue();
+        if (query == null || query.getSort() == sort)
+            return;
+        final AppQuery sortedQuery = query.copy();
+        sortedQuery.setSort(sort);
+        queryLiveData.setValue(sortedQuery);
+    }
+
+    public void setFilter(String filter) {
+        final AppQuery query = queryLiveData.getValue();
+        if (query == null || StringUtils.equals(query.getFilter(), filter))
+            return;
+        final AppQuery filteredQuery = query.copy();
+        filteredQuery.setFilter(filter);
+        queryLiveData.setValue(filteredQuery);
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Aurora Droid
+ * Copyright (C) 2019-20, Rahul Kumar Patel <whyorean@gmail.com>
+ *
+ * Aurora Droid is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Aurora Droid is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Aurora Droid.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.aurora.adroid.database;
+
+import com.aurora.adroid.model.Package;
+import com.aurora.adroid.model.v2.Localization;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BlobCodecTest {
+
+    @Test
+    public void packageList_roundTripsInCurrentFormat() {
+        final List<Package> packageList = Arrays.asList(getPackage(2), getPackage(1));
+        packageList.get(0).setCompatible(true);
+
+        final BlobCodec writer = BlobCodec.writer();
+        writer.writePackageList(packageList);
+        final byte[] bytes = writer.toByteArray();
+
+        final BlobCodec reader = BlobCodec.reader(bytes);
+        final List<Package> decodedList = reader.readPackageList();
+        reader.release();
+
+        assertEquals(packageList, decodedList);
+        assertEquals("29", decodedList.get(0).getMaxSdkVersion());
+        assertTrue(decodedList.get(0).isCompatible());
+        assertFalse(decodedList.get(1).isCompatible());
+    }
+
+    @Test
+    public void packageList_decodesVersionOne() {
+        final Package pkg = getPackage(1);
+        pkg.setCompatible(true);
+
+        final BlobCodec writer = BlobCodec.writer(1);
+        writer.writePackageList(Collections.singletonList(pkg));
+        final byte[] bytes = writer.toByteArray();
+
+        final BlobCodec reader = BlobCodec.reader(bytes);
+        final Package decoded = reader.readPackageList().get(0);
+        reader.release();
+
+        //Version one predates maxSdkVersion and the compatibility flag
+        assertNull(decoded.getMaxSdkVersion());
+        assertFalse(decoded.isCompatible());
+        decoded.setMaxSdkVersion(pkg.getMaxSdkVersion());
+        assertEquals(pkg, decoded);
+    }
+
+    @Test
+    public void localizationMap_roundTrips() {
+        final Localization localization = new Localization();
+        localization.setName("Aurora Droid");
+        localization.setSummary("F-Droid client");
+        localization.setPhoneScreenshots(Arrays.asList("1.png", "2.png"));
+
+        final HashMap<String, Localization> localizationMap = new HashMap<>();
+        localizationMap.put("en-US", localization);
+        localizationMap.put("de", null);
+
+        for (int formatVersion = 1; formatVersion <= 2; formatVersion++) {
+            final BlobCodec writer = BlobCodec.writer(formatVersion);
+            writer.writeLocalizationMap(localizationMap);
+            final byte[] bytes = writer.toByteArray();
+
+            final BlobCodec reader = BlobCodec.reader(bytes);
+            assertEquals(localizationMap, reader.readLocalizationMap());
+            reader.release();
+        }
+    }
+
+    @Test
+    public void nullsAndRepeatedStrings_roundTrip() {
+        final List<String> list = Arrays.asList("arm64-v8a", null, "arm64-v8a", "\u00dcn\u00efcode");
+
+        final BlobCodec writer = BlobCodec.writer();
+        writer.writeStringList(list);
+        writer.writeStringList(null);
+        writer.writeLong(null);
+        writer.writeLong(Long.MAX_VALUE);
+        final byte[] bytes = writer.toByteArray();
+
+        final BlobCodec reader = BlobCodec.reader(bytes);
+        assertEquals(list, reader.readStringList());
+        assertNull(reader.readStringList());
+        assertNull(reader.readLong());
+        assertEquals(Long.valueOf(Long.MAX_VALUE), reader.readLong());
+        reader.release();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void unknownVersion_isRejected() {
+        BlobCodec.reader(new byte[]{3});
+    }
+
+    private static Package getPackage(long versionCode) {
+        final Package pkg = new Package();
+        pkg.setApkName("com.aurora.adroid_" + versionCode + ".apk");
+        pkg.setAdded(1600000000000L + versionCode);
+        pkg.setHash("a1b2c3");
+        pkg.setHashType("sha256");
+        pkg.setMinSdkVersion("21");
+        pkg.setMaxSdkVersion("29");
+        pkg.setNativecode(Arrays.asList("arm64-v8a", "armeabi-v7a"));
+        pkg.setPackageName("com.aurora.adroid");
+        pkg.setSigner("signer");
+        pkg.setSize(4096L * versionCode);
+        pkg.setTargetSdkVersion("29");
+        pkg.setUsesPermission(Arrays.asList(
+                Collections.singletonList("android.permission.INTERNET"),
+                Arrays.asList("android.permission.WRITE_EXTERNAL_STORAGE", "18")));
+        pkg.setVersionCode(versionCode);
+        pkg.setVersionName("1." + versionCode);
+        pkg.setAntiFeatures(Collections.singletonList("NonFreeNet"));
+        return pkg;
+    }
+}